@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer single-consumer queue handing commands from the AWT event thread to the client thread.
+ * Only the producer writes tail and only the consumer writes head, each publishing with an ordered store, so neither
+ * thread ever blocks or contends on a lock.
+ */
+public class LingeringClickTooltipsCommandQueue {
+
+    static final int CAPACITY = 16; // must be a power of two, far more commands than can be input in a frame
+
+    private final LingeringClickTooltipsCommand[] commands = new LingeringClickTooltipsCommand[CAPACITY];
+
+    private final AtomicLong head = new AtomicLong(); // next command to poll, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next command to offer, written by the producer
+
+    /**
+     * Publishes a command. Must only be called from the producer thread.
+     * @param command the command to publish
+     * @return whether the command was published, false if the queue is full
+     */
+    public boolean offer(LingeringClickTooltipsCommand command)
+    {
+        final long currentTail = tail.get();
+        if (currentTail - head.get() == CAPACITY)
+        {
+            return false;
+        }
+        commands[(int) currentTail & (CAPACITY - 1)] = command;
+        tail.lazySet(currentTail + 1); // publishes the command written above
+        return true;
+    }
+
+    /**
+     * Takes the oldest command. Must only be called from the consumer thread.
+     * @return the oldest command, null if the queue is empty
+     */
+    public LingeringClickTooltipsCommand poll()
+    {
+        final long currentHead = head.get();
+        if (currentHead == tail.get())
+        {
+            return null;
+        }
+        final int index = (int) currentHead & (CAPACITY - 1);
+        final LingeringClickTooltipsCommand command = commands[index];
+        commands[index] = null;
+        head.lazySet(currentHead + 1); // releases the slot back to the producer
+        return command;
+    }
+}
@@ -32,11 +32,13 @@ import net.runelite.client.config.Units;
 import net.runelite.client.config.ConfigSection;
 import net.runelite.client.config.Range;
 import net.runelite.client.config.Alpha;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeCurve;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterMode;
 
 import java.awt.Color;
 
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.color.LingeringClickTooltipsColorConstants.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeConstants.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringConstants.*;
 
 @ConfigGroup(LingeringClickTooltipsConfig.GROUP_NAME)
@@ -45,6 +47,8 @@ public interface LingeringClickTooltipsConfig extends Config
 	String GROUP_NAME = "lingeringclicktooltips";
 	String OVERLAY_PREFERRED_POSITION = "LingeringClickTooltipsOverlay_preferredPosition";
 	String OVERLAY_PREFERRED_LOCATION = "LingeringClickTooltipsOverlay_preferredLocation";
+	String TOOLTIP_CACHE_SIZE = "tooltipCacheSize";
+	String MAXIMUM_TOOLTIPS_SHOWN = "maximumTooltipsShown";
 
 	@ConfigSection(
 		name = "Lifespan",
@@ -133,7 +137,7 @@ public interface LingeringClickTooltipsConfig extends Config
 	default int tooltipFadeout() { return 40; }
 
 	@ConfigItem(
-		keyName = "maximumTooltipsShown",
+		keyName = MAXIMUM_TOOLTIPS_SHOWN,
 		name = "Max tooltips shown",
 		description = "The maximum number of tooltips shown at any given time",
 		position = 3,
@@ -151,6 +155,15 @@ public interface LingeringClickTooltipsConfig extends Config
 	)
 	default boolean permanentTooltips() { return false; }
 
+	@ConfigItem(
+		keyName = FADE_CURVE,
+		name = "Fade curve",
+		description = "The easing curve followed by the fade-in and fadeout periods",
+		position = 5,
+		section = lifespan
+	)
+	default LingeringClickTooltipsFadeCurve fadeCurve() { return LingeringClickTooltipsFadeCurve.LINEAR; }
+
 	@ConfigItem(
 		keyName = USE_CUSTOM_TEXT_COLOR,
 		name = "Use custom text color",
@@ -208,6 +221,17 @@ public interface LingeringClickTooltipsConfig extends Config
 	@Range(max = 100)
 	default int maximumOpacity() { return 100; }
 
+	@ConfigItem(
+		keyName = TOOLTIP_CACHE_SIZE,
+		name = "Tooltip cache size",
+		description = "Memory budget for rendered tooltip images, reused across frames instead of redrawing text, 0 to disable",
+		position = 6,
+		section = appearance
+	)
+	@Units("KB")
+	@Range(max = 65536)
+	default int tooltipCacheSize() { return 2048; }
+
 	@ConfigItem(
 		keyName = "fastMode",
 		name = "Fast mode",
@@ -244,11 +268,29 @@ public interface LingeringClickTooltipsConfig extends Config
 	)
 	default boolean tickSyncMode() { return false; }
 
+	@ConfigItem(
+		keyName = "tickBatchMode",
+		name = "Tick batch mode",
+		description = "In tick sync mode, all clicks from the same game tick are combined into one tooltip",
+		position = 4,
+		section = modes
+	)
+	default boolean tickBatchMode() { return false; }
+
+	@ConfigItem(
+		keyName = "coalesceMode",
+		name = "Coalesce mode",
+		description = "Repeats of the latest tooltip refresh it and show a repeat count instead of adding a new tooltip",
+		position = 5,
+		section = modes
+	)
+	default boolean coalesceMode() { return false; }
+
 	@ConfigItem(
 		keyName = "filterMode",
 		name = "Filter mode",
 		description = "Select the mode used for filtering tooltips based on user-managed lists",
-		position = 4,
+		position = 6,
 		section = modes
 	)
 	default LingeringClickTooltipsFilterMode filterMode() { return LingeringClickTooltipsFilterMode.NONE; }
@@ -256,7 +298,7 @@ public interface LingeringClickTooltipsConfig extends Config
 	@ConfigItem(
 		keyName = BLACKLIST_CSV,
 		name = "Blacklist",
-		description = "Tooltips matching text in this list will NOT show",
+		description = "Tooltips matching text in this list will NOT show, * matches any text and /regex/ entries are matched as regex",
 		position = 0,
 		section = filterLists
 	)
@@ -272,7 +314,7 @@ public interface LingeringClickTooltipsConfig extends Config
 	@ConfigItem(
 		keyName = WHITELIST_CSV,
 		name = "Whitelist",
-		description = "Tooltips NOT matching text in this list will NOT show",
+		description = "Tooltips NOT matching text in this list will NOT show, * matches any text and /regex/ entries are matched as regex",
 		position = 1,
 		section = filterLists
 	)
@@ -285,6 +327,66 @@ public interface LingeringClickTooltipsConfig extends Config
 	)
 	void setWhitelist(String key);
 
+	@ConfigItem(
+		keyName = BLACKLIST_IDS_CSV,
+		name = "",
+		description = "Menu action and identifier pairs blacklisted with SHIFT",
+		hidden = true
+	)
+	default String blacklistIds() { return ""; }
+
+	@ConfigItem(
+		keyName = BLACKLIST_IDS_CSV,
+		name = "",
+		description = ""
+	)
+	void setBlacklistIds(String key);
+
+	@ConfigItem(
+		keyName = WHITELIST_IDS_CSV,
+		name = "",
+		description = "Menu action and identifier pairs whitelisted with SHIFT",
+		hidden = true
+	)
+	default String whitelistIds() { return ""; }
+
+	@ConfigItem(
+		keyName = WHITELIST_IDS_CSV,
+		name = "",
+		description = ""
+	)
+	void setWhitelistIds(String key);
+
+	@ConfigItem(
+		keyName = BLACKLIST_SAVED_TO_FILE,
+		name = "",
+		description = "Whether the blacklist is too long for the config and saved to a file instead",
+		hidden = true
+	)
+	default boolean blacklistSavedToFile() { return false; }
+
+	@ConfigItem(
+		keyName = BLACKLIST_SAVED_TO_FILE,
+		name = "",
+		description = ""
+	)
+	void setBlacklistSavedToFile(boolean key);
+
+	@ConfigItem(
+		keyName = WHITELIST_SAVED_TO_FILE,
+		name = "",
+		description = "Whether the whitelist is too long for the config and saved to a file instead",
+		hidden = true
+	)
+	default boolean whitelistSavedToFile() { return false; }
+
+	@ConfigItem(
+		keyName = WHITELIST_SAVED_TO_FILE,
+		name = "",
+		description = ""
+	)
+	void setWhitelistSavedToFile(boolean key);
+
 	@ConfigItem(
 		keyName = "blockFilteredClicks",
 		name = "Block filtered clicks",
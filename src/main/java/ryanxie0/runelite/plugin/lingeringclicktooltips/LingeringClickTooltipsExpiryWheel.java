@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hashed timing wheel which buckets tooltips by the time at which they finish fading out. Advancing the wheel only
+ * visits the buckets whose time has passed, so expired tooltips are found without computing the alpha of every
+ * queued tooltip. Deadlines further away than one rotation of the wheel stay in their bucket for later rotations.
+ */
+public class LingeringClickTooltipsExpiryWheel {
+
+    private static final int BUCKET_COUNT = 256; // must be a power of two
+    private static final long TICK_MILLIS = 16;
+
+    private final Entry[][] buckets = new Entry[BUCKET_COUNT][];
+    private final int[] bucketSizes = new int[BUCKET_COUNT];
+
+    private long currentTick = -1;
+
+    private static class Entry {
+
+        private final LingeringClickTooltipsWrapper tooltip;
+        private final long deadline;
+
+        private Entry(LingeringClickTooltipsWrapper tooltip, long deadline)
+        {
+            this.tooltip = tooltip;
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * Schedules a tooltip to expire once its deadline passes. A tooltip whose deadline changes is simply scheduled
+     * again, the entry with the outdated deadline is discarded when it comes due.
+     * @param tooltip the tooltip to schedule
+     * @param deadline the time in ms at which the tooltip has fully faded out
+     */
+    public void schedule(LingeringClickTooltipsWrapper tooltip, long deadline)
+    {
+        // rounded up so the bucket is only visited once the deadline has passed, and a deadline which already passed
+        // is due at the next advance rather than a full rotation later
+        final long tick = Math.max((deadline + TICK_MILLIS - 1) / TICK_MILLIS, currentTick + 1);
+        final int bucket = (int) tick & (BUCKET_COUNT - 1);
+        Entry[] entries = buckets[bucket];
+        if (entries == null)
+        {
+            entries = buckets[bucket] = new Entry[4];
+        }
+        else if (bucketSizes[bucket] == entries.length)
+        {
+            entries = buckets[bucket] = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[bucketSizes[bucket]++] = new Entry(tooltip, deadline);
+    }
+
+    /**
+     * Advances the wheel to now, collecting every tooltip whose deadline has passed since the last advance.
+     * @param now the current time in ms
+     * @param expired the list to which expired tooltips are added
+     */
+    public void advance(long now, List<LingeringClickTooltipsWrapper> expired)
+    {
+        final long nowTick = now / TICK_MILLIS;
+        if (currentTick < 0 || nowTick - currentTick > BUCKET_COUNT)
+        {   // first advance or a long stall, every bucket is due
+            currentTick = nowTick - BUCKET_COUNT;
+        }
+
+        while (currentTick < nowTick)
+        {
+            currentTick++;
+            expireBucket((int) currentTick & (BUCKET_COUNT - 1), now, expired);
+        }
+    }
+
+    private void expireBucket(int bucket, long now, List<LingeringClickTooltipsWrapper> expired)
+    {
+        final Entry[] entries = buckets[bucket];
+        int size = bucketSizes[bucket];
+        for (int i = size - 1; i >= 0; i--)
+        {
+            final Entry entry = entries[i];
+            if (entry.deadline > now)
+            {
+                continue; // due in a later rotation
+            }
+
+            if (entry.deadline == calculateDeadline(entry.tooltip))
+            {
+                expired.add(entry.tooltip);
+            }
+            entries[i] = entries[--size];
+            entries[size] = null;
+        }
+        bucketSizes[bucket] = size;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(buckets, null);
+        Arrays.fill(bucketSizes, 0);
+        currentTick = -1;
+    }
+
+    /**
+     * @param tooltip the tooltip for which the deadline will be calculated
+     * @return the time in ms at which the tooltip has fully faded out
+     */
+    public static long calculateDeadline(LingeringClickTooltipsWrapper tooltip)
+    {
+        return tooltip.getTimeOfCreation() + tooltip.getTooltipDuration();
+    }
+}
@@ -37,6 +37,8 @@ import net.runelite.client.input.MouseAdapter;
 
 import javax.inject.Inject;
 
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsCommand.*;
+
 public class LingeringClickTooltipsInputListener extends MouseAdapter implements KeyListener
 {
     @Inject
@@ -45,26 +47,86 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
     @Inject
     private LingeringClickTooltipsConfig config;
 
-    @Getter(AccessLevel.PACKAGE)
-    private Point lastClickPoint;
-
-    @Getter(AccessLevel.PACKAGE)
-    private boolean isCtrlPressed;
-
-    @Getter(AccessLevel.PACKAGE)
-    private boolean isShiftPressed;
+    // bits of inputState, the upper 32 bits hold a version incremented by every change
+    private static final long CTRL_PRESSED = 1L;
+    private static final long SHIFT_PRESSED = 1L << 1;
+    private static final long MOUSE_OVER_CANVAS = 1L << 2;
+    private static final long HIDE = 1L << 3;
+    private static final int VERSION_SHIFT = 32;
+    private static final long FLAGS_MASK = (1L << VERSION_SHIFT) - 1;
 
     @Getter(AccessLevel.PACKAGE)
-    private boolean isMouseOverCanvas;
+    private volatile Point lastClickPoint;
 
+    /**
+     * Modifier keys, mouse and hide mode state packed into one value, only written on the AWT event thread. Readers
+     * load it once and decode the snapshot with the static helpers, so they never see a mix of old and new state.
+     */
     @Getter(AccessLevel.PACKAGE)
-    private boolean isHide;
+    private volatile long inputState;
 
-    private LingeringClickTooltipsQueueManager queueManager;
+    private LingeringClickTooltipsCommandQueue commandQueue; // queueManager is only used on the client thread
 
     private Instant lastCtrlPressTime;
     private Instant lastShiftPressTime;
 
+    /**
+     * @param inputState a snapshot of inputState
+     * @return whether CTRL was pressed in the snapshot
+     */
+    static boolean isCtrlPressed(long inputState)
+    {
+        return (inputState & CTRL_PRESSED) != 0;
+    }
+
+    /**
+     * @param inputState a snapshot of inputState
+     * @return whether SHIFT was pressed in the snapshot
+     */
+    static boolean isShiftPressed(long inputState)
+    {
+        return (inputState & SHIFT_PRESSED) != 0;
+    }
+
+    /**
+     * @param inputState a snapshot of inputState
+     * @return whether the mouse was over the canvas in the snapshot
+     */
+    static boolean isMouseOverCanvas(long inputState)
+    {
+        return (inputState & MOUSE_OVER_CANVAS) != 0;
+    }
+
+    /**
+     * @param inputState a snapshot of inputState
+     * @return whether hide mode was enabled in the snapshot
+     */
+    static boolean isHide(long inputState)
+    {
+        return (inputState & HIDE) != 0;
+    }
+
+    /**
+     * @param inputState a snapshot of inputState
+     * @return the number of changes made before the snapshot, wrapping around
+     */
+    static int getVersion(long inputState)
+    {
+        return (int) (inputState >>> VERSION_SHIFT);
+    }
+
+    /**
+     * Sets or clears flags in inputState and publishes the result with a new version in a single volatile store.
+     * @param flags the bits to change
+     * @param value whether the bits are set or cleared
+     */
+    private void setFlags(long flags, boolean value)
+    {
+        final long state = inputState;
+        final long newFlags = value ? (state | flags) & FLAGS_MASK : state & ~flags & FLAGS_MASK;
+        inputState = ((long) (getVersion(state) + 1) << VERSION_SHIFT) | newFlags;
+    }
+
     @Override
     public MouseEvent mousePressed(MouseEvent event)
     {
@@ -78,14 +140,14 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
     @Override
     public MouseEvent mouseEntered(MouseEvent event)
     {
-        isMouseOverCanvas = true;
+        setFlags(MOUSE_OVER_CANVAS, true);
         return event;
     }
 
     @Override
     public MouseEvent mouseExited(MouseEvent event)
     {
-        isMouseOverCanvas = false;
+        setFlags(MOUSE_OVER_CANVAS, false);
         return event;
     }
 
@@ -127,18 +189,19 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
      */
     private void processCtrlPressed(KeyEvent event)
     {
-        if (!isCtrlPressed)
+        final long state = inputState;
+        if (!isCtrlPressed(state))
         {
             if (lastCtrlPressTime != null && config.ctrlDoubleTapDelay() > 0
                 && Duration.between(lastCtrlPressTime, Instant.now()).compareTo(Duration.ofMillis(config.ctrlDoubleTapDelay())) < 0)
             {
-                isHide = !isHide;
-                queueManager.createHideModeInfoTooltip(isHide);
+                setFlags(HIDE, !isHide(state));
+                commandQueue.offer(isHide(state) ? SHOW_TOOLTIPS : HIDE_TOOLTIPS);
                 lastCtrlPressTime = null;
             }
             else
             {
-                isCtrlPressed = true;
+                setFlags(CTRL_PRESSED, true);
                 lastCtrlPressTime = Instant.now();
             }
         }
@@ -150,19 +213,20 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
      */
     private void processShiftPressed(KeyEvent event)
     {
-        if (isCtrlPressed)
+        final long state = inputState;
+        if (isCtrlPressed(state))
         {
-            if (!isShiftPressed)
+            if (!isShiftPressed(state))
             {
                 if (lastShiftPressTime != null && config.shiftDoubleTapDelay() > 0
                     && Duration.between(lastShiftPressTime, Instant.now()).compareTo(Duration.ofMillis(config.shiftDoubleTapDelay())) < 0)
                 {
-                    queueManager.createFilterListUpdateInfoTooltip();
+                    commandQueue.offer(UPDATE_FILTER_LISTS);
                     lastShiftPressTime = null;
                 }
                 else
                 {
-                    isShiftPressed = true;
+                    setFlags(SHIFT_PRESSED, true);
                     lastShiftPressTime = Instant.now();
                 }
             }
@@ -173,7 +237,7 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
                 {
                     if (config.shiftPeeks())
                     {
-                        queueManager.createPeekInfoTooltip();
+                        commandQueue.offer(PEEK);
                     }
                 }
             }
@@ -187,15 +251,14 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
      */
     private void processCtrlReleased(KeyEvent event)
     {
-        if (isCtrlPressed && config.ctrlDoubleTapDelay() > 0)
+        if (isCtrlPressed(inputState) && config.ctrlDoubleTapDelay() > 0)
         {
             if (lastCtrlPressTime != null && Duration.between(lastCtrlPressTime, Instant.now()).compareTo(Duration.ofMillis(config.ctrlDoubleTapDelay())) > 0)
             {
                 lastCtrlPressTime = null; // we want to time out presses that are too long to enforce a strong double-tap behavior
             }
         }
-        isCtrlPressed = false;
-        isShiftPressed = false;
+        setFlags(CTRL_PRESSED | SHIFT_PRESSED, false);
     }
 
     /**
@@ -204,9 +267,10 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
      */
     private void processShiftReleased(KeyEvent event)
     {
-        if (isCtrlPressed)
+        final long state = inputState;
+        if (isCtrlPressed(state))
         {
-            if (isShiftPressed && config.shiftDoubleTapDelay() > 0)
+            if (isShiftPressed(state) && config.shiftDoubleTapDelay() > 0)
             {
                 if (lastShiftPressTime != null && Duration.between(lastShiftPressTime, Instant.now()).compareTo(Duration.ofMillis(config.shiftDoubleTapDelay())) > 0)
                 {
@@ -214,21 +278,18 @@ public class LingeringClickTooltipsInputListener extends MouseAdapter implements
                 }
             }
         }
-        isShiftPressed = false;
+        setFlags(SHIFT_PRESSED, false);
     }
 
     public void initialize(LingeringClickTooltipsQueueManager queueManager)
     {
-        this.queueManager = queueManager;
-        isCtrlPressed = false;
-        isShiftPressed = false;
-        isMouseOverCanvas = true;
-        isHide = false;
+        commandQueue = queueManager.getCommandQueue();
+        inputState = MOUSE_OVER_CANVAS;
     }
 
     public void destroy()
     {
-        queueManager = null;
+        commandQueue = null;
         lastCtrlPressTime = null;
         lastShiftPressTime = null;
     }
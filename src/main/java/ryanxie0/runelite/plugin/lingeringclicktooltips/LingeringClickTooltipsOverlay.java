@@ -25,27 +25,39 @@
  */
 package ryanxie0.runelite.plugin.lingeringclicktooltips;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import net.runelite.api.Client;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPriority;
-import net.runelite.client.ui.overlay.tooltip.Tooltip;
 import net.runelite.client.ui.overlay.tooltip.TooltipManager;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFrameClock;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaCharWidthTable;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaModIconCache;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaRenderPool;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipComponent;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipLayer;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipSpriteCache;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
 
 import java.awt.Dimension;
 import java.awt.Graphics2D;
-import java.util.Queue;
 import javax.inject.Inject;
 
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsLocation.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsSettingsManager.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFade.*;
-import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeUtil.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeManager.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapperUtil.*;
 
 public class LingeringClickTooltipsOverlay extends Overlay
 {
+    // RuneLite config key names
+    private static final String FONT_TYPE = "fontType";
+    private static final String TOOLTIP_FONT_TYPE = "tooltipFontType";
+
     @Inject
     private LingeringClickTooltipsPlugin plugin;
 
@@ -58,9 +70,19 @@ public class LingeringClickTooltipsOverlay extends Overlay
     @Inject
     private TooltipManager tooltipManager;
 
+    @Inject
+    private LingeringClickTooltipsFrameClock frameClock;
+
     private LingeringClickTooltipsInputListener inputListener;
     private LingeringClickTooltipsQueueManager queueManager;
     private LingeringClickTooltipsOverlayStateManager stateManager;
+    private AlphaTooltipSpriteCache spriteCache;
+    private AlphaModIconCache modIconCache;
+    private AlphaRenderPool renderPool;
+    private LingeringClickTooltipsSettings settings; // taken once per render
+
+    @Getter(AccessLevel.PACKAGE)
+    private AlphaTooltipLayer tooltipLayer;
 
     @Inject
     LingeringClickTooltipsOverlay()
@@ -72,10 +94,14 @@ public class LingeringClickTooltipsOverlay extends Overlay
     @Override
     public Dimension render(Graphics2D graphics)
     {
+        frameClock.advanceFrame(); // every tooltip in this frame fades against the same time
+        settings = getSettings();
         stateManager.forceDynamic();
+        modIconCache.update(client.getModIcons());
+        queueManager.processCommands();
         queueManager.flushTooltips();
         renderInfoTooltip(queueManager.getInfoTooltip(), graphics);
-        if (config.tooltipLocation() == FIXED)
+        if (settings.getTooltipLocation() == FIXED)
         {
             return renderFixedLocationTooltip(queueManager.getFixedLocationTooltip(), graphics);
         }
@@ -101,40 +127,48 @@ public class LingeringClickTooltipsOverlay extends Overlay
 
         if (fixedLocationTooltip.getRenderableComponent() == null)
         {
-            buildAlphaTooltipComponent(fixedLocationTooltip, client);
+            buildAlphaTooltipComponent(fixedLocationTooltip, modIconCache, spriteCache, renderPool);
         }
 
         double alphaModifier;
         if (fixedLocationTooltip.isFaded())
-        {   // fixedLocationTooltip continues to render transparent so that the overlay bounds still shows
-            return fixedLocationTooltip.getRenderableComponent().render(graphics);
+        {   // fixedLocationTooltip is only measured, not rendered, so that the overlay bounds still shows
+            return fixedLocationTooltip.getRenderableComponent().measure(graphics.getFontMetrics());
         }
-        else if (config.permanentTooltips() || config.trackerMode())
+        else if (settings.isPermanentTooltips() || settings.isTrackerMode())
         {
-            alphaModifier = getMaximumOpacity(config);
+            alphaModifier = getTooltipFadeProfile().getMaximumOpacity();
         }
         else
         {
-            alphaModifier = calculateAlphaModifier(fixedLocationTooltip, config);
+            alphaModifier = calculateAlphaModifier(fixedLocationTooltip, frameClock.getFrameTime());
         }
 
         return renderTooltip(fixedLocationTooltip, graphics, alphaModifier);
     }
 
     /**
-     * Logic for preparing to render all tooltips in the queue from queueManager. Any tooltip marked as faded is
-     * collected here for flushing.
-     * @param tooltips the queue of tooltips currently being rendered, front of the queue is oldest
+     * Logic for preparing to render all tooltips in the queue from queueManager. Expired tooltips have already been
+     * flushed by queueManager, so only live tooltips are visited. Tooltips not handed to tooltipManager are composited into tooltipLayer, which is
+     * only redrawn when the stack changes.
+     * @param tooltips the queue of tooltips currently being rendered, slot 0 is oldest
      * @param graphics engine used to render
      */
-    private void renderTooltips(Queue<LingeringClickTooltipsWrapper> tooltips, Graphics2D graphics)
+    private void renderTooltips(LingeringClickTooltipsRingBuffer tooltips, Graphics2D graphics)
     {
+        tooltipLayer.begin(graphics);
         int queuePosition = 0;
-        for (LingeringClickTooltipsWrapper tooltip : tooltips)
+        for (int i = 0; i < tooltips.span(); i++)
         {
+            LingeringClickTooltipsWrapper tooltip = tooltips.get(i);
+            if (tooltip == null)
+            {
+                continue;
+            }
+
             if (tooltip.getRenderableComponent() == null)
             {
-                buildAlphaTooltipComponent(tooltip, client);
+                buildAlphaTooltipComponent(tooltip, modIconCache, spriteCache, renderPool);
             }
 
             if (!tooltip.isClamped() && tooltip.getLocation() != null)
@@ -142,25 +176,29 @@ public class LingeringClickTooltipsOverlay extends Overlay
                 clampTooltip(tooltip, graphics);
             }
 
-            if (queuePosition++ < config.maximumTooltipsShown())
+            if (queuePosition++ < settings.getMaximumTooltipsShown())
             {
                 double alphaModifier;
-                if (config.permanentTooltips() || config.trackerMode())
+                if (settings.isPermanentTooltips() || settings.isTrackerMode())
                 {
-                    alphaModifier = getMaximumOpacity(config) * queuePosition / tooltips.size();
+                    alphaModifier = getTooltipFadeProfile().getMaximumOpacity() * queuePosition / tooltips.getSize();
                 }
                 else
                 {
-                    alphaModifier = calculateAlphaModifier(tooltip, config);
+                    alphaModifier = calculateAlphaModifier(tooltip, frameClock.getFrameTime());
                 }
-                renderTooltip(tooltip, graphics, alphaModifier);
-            }
 
-            if (tooltip.isFaded())
-            {
-                queueManager.addTooltipToFlush(tooltip);
+                if (alphaModifier > 0.0 && !isManagedTooltip(tooltip))
+                {
+                    tooltipLayer.add(tooltip.getRenderableComponent(), alphaModifier);
+                }
+                else
+                {
+                    renderTooltip(tooltip, graphics, alphaModifier);
+                }
             }
         }
+        tooltipLayer.draw(graphics);
     }
 
     /**
@@ -176,15 +214,16 @@ public class LingeringClickTooltipsOverlay extends Overlay
             {
                 if (infoTooltip.getRenderableComponent() == null)
                 {
-                    buildAlphaTooltipComponent(infoTooltip, client);
+                    buildAlphaTooltipComponent(infoTooltip, modIconCache, spriteCache, renderPool);
                 }
-                renderTooltip(infoTooltip, graphics, calculateAlphaModifier(infoTooltip, config));
+                renderTooltip(infoTooltip, graphics, calculateAlphaModifier(infoTooltip, frameClock.getFrameTime()));
             }
         }
     }
 
     /**
-     * Performs actual rendering of tooltips. Tooltips are marked here as faded if alphaModifier is transparent.
+     * Performs actual rendering of tooltips. Tooltips are marked here as faded if alphaModifier is transparent, unless
+     * they are still fading in, as a tooltip is transparent on the frame it was created in.
      * @param tooltip the tooltip wrapper which is used to construct a renderable component
      * @param graphics engine used to render
      * @param alphaModifier the opacity of the tooltip
@@ -194,10 +233,11 @@ public class LingeringClickTooltipsOverlay extends Overlay
         if (alphaModifier > 0.0)
         {
             AlphaTooltipComponent renderableComponent = tooltip.getRenderableComponent();
-            if (tooltip.isInfoTooltip() || config.tooltipLocation() == ANCHORED || config.trackerMode())
+            if (isManagedTooltip(tooltip))
             {
-                renderableComponent.setAlphaModifier(inputListener.isMouseOverCanvas()? alphaModifier : 0.0);
-                tooltipManager.addFront(new Tooltip(renderableComponent));
+                boolean isMouseOverCanvas = LingeringClickTooltipsInputListener.isMouseOverCanvas(inputListener.getInputState());
+                renderableComponent.setAlphaModifier(isMouseOverCanvas? alphaModifier : 0.0);
+                tooltipManager.addFront(tooltip.getManagedTooltip());
             }
             else
             {
@@ -205,7 +245,7 @@ public class LingeringClickTooltipsOverlay extends Overlay
                 return renderableComponent.render(graphics);
             }
         }
-        else
+        else if (!isFadingIn(tooltip, frameClock.getFrameTime()))
         {
             tooltip.setFaded(true);
         }
@@ -213,17 +253,25 @@ public class LingeringClickTooltipsOverlay extends Overlay
     }
 
     /**
-     * Clamps tooltips by first rendering an invisible component to obtain its dimensions, then setting the tooltip
-     * location to the new clamped location. Sets clamped to true so that clamping is only calculated once per component.
+     * @param tooltip the tooltip wrapper to check
+     * @return true if the tooltip is rendered by tooltipManager rather than drawn directly by this overlay
+     */
+    private boolean isManagedTooltip(LingeringClickTooltipsWrapper tooltip)
+    {
+        return tooltip.isInfoTooltip() || settings.getTooltipLocation() == ANCHORED || settings.isTrackerMode();
+    }
+
+    /**
+     * Clamps tooltips by first measuring the component to obtain its dimensions, then setting the tooltip location to
+     * the new clamped location. Sets clamped to true so that clamping is only calculated once per component.
      * @param tooltip the tooltip wrapper which is used to construct a renderable component
-     * @param graphics engine used to render
+     * @param graphics engine used to render, only its font metrics are used
      */
     private void clampTooltip(LingeringClickTooltipsWrapper tooltip, Graphics2D graphics)
     {
         AlphaTooltipComponent renderableComponent = tooltip.getRenderableComponent();
-        renderableComponent.setAlphaModifier(0.0);
-        Dimension dimension = renderableComponent.render(graphics);
-        renderableComponent.setPosition(getClampedLocation(dimension, tooltip.getLocation(), client, config));
+        Dimension dimension = renderableComponent.measure(graphics.getFontMetrics());
+        renderableComponent.setPosition(getClampedLocation(dimension, tooltip.getLocation(), client, settings));
         tooltip.setClamped(true);
     }
 
@@ -232,6 +280,10 @@ public class LingeringClickTooltipsOverlay extends Overlay
         this.inputListener = inputListener;
         this.queueManager = queueManager;
         initializeStateManager();
+        initializeSpriteCache();
+        modIconCache = new AlphaModIconCache();
+        renderPool = new AlphaRenderPool();
+        tooltipLayer = new AlphaTooltipLayer();
     }
 
     public void destroy()
@@ -240,6 +292,15 @@ public class LingeringClickTooltipsOverlay extends Overlay
         queueManager = null;
         stateManager.destroy();
         stateManager = null;
+        spriteCache.clear();
+        spriteCache = null;
+        AlphaCharWidthTable.invalidate();
+        modIconCache.clear();
+        modIconCache = null;
+        renderPool = null;
+        tooltipLayer.clear();
+        tooltipLayer = null;
+        settings = null;
     }
 
     private void initializeStateManager()
@@ -249,6 +310,12 @@ public class LingeringClickTooltipsOverlay extends Overlay
         updateFromConfig(TOOLTIP_LOCATION_CONFIG_KEY);
     }
 
+    private void initializeSpriteCache()
+    {
+        spriteCache = new AlphaTooltipSpriteCache();
+        updateFromConfig(TOOLTIP_CACHE_SIZE);
+    }
+
     public void updateFromConfig(String configKey)
     {
         if (configKey.equals(TOOLTIP_LOCATION_CONFIG_KEY))
@@ -266,5 +333,14 @@ public class LingeringClickTooltipsOverlay extends Overlay
                 stateManager.setDynamic();
             }
         }
+        else if (configKey.equals(TOOLTIP_CACHE_SIZE))
+        {
+            spriteCache.setBudgetBytes(config.tooltipCacheSize() * 1024L);
+        }
+        else if (configKey.equals(FONT_TYPE) || configKey.equals(TOOLTIP_FONT_TYPE))
+        {
+            AlphaCharWidthTable.invalidate();
+            spriteCache.clear(); // sprites rendered with the previous font will not be used again
+        }
     }
 }
@@ -26,6 +26,7 @@
 package ryanxie0.runelite.plugin.lingeringclicktooltips;
 
 import com.google.inject.Provides;
+import net.runelite.api.events.CommandExecuted;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.MenuOptionClicked;
 import net.runelite.client.config.ConfigManager;
@@ -38,6 +39,8 @@ import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.ui.overlay.OverlayManager;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.color.LingeringClickTooltipsTextColorManager;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeManager;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterListManager;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsTrivialClicksManager;
 
 import javax.inject.Inject;
@@ -67,6 +70,9 @@ public class LingeringClickTooltipsPlugin extends Plugin
 	@Inject
 	private OverlayManager overlayManager;
 
+	@Inject
+	private LingeringClickTooltipsSettingsManager settingsManager;
+
 	@Inject
 	private LingeringClickTooltipsQueueManager queueManager;
 
@@ -76,12 +82,20 @@ public class LingeringClickTooltipsPlugin extends Plugin
 	@Inject
 	private LingeringClickTooltipsTrivialClicksManager trivialClicksManager;
 
+	@Inject
+	private LingeringClickTooltipsFilterListManager filterListManager;
+
 	@Inject
 	private LingeringClickTooltipsTextColorManager textColorManager;
 
+	@Inject
+	private LingeringClickTooltipsFadeManager fadeManager;
+
 	@Override
 	protected void startUp() throws Exception
 	{
+		settingsManager.initialize();
+
 		mouseManager.registerMouseListener(inputListener);
 		keyManager.registerKeyListener(inputListener);
 		inputListener.initialize(queueManager);
@@ -93,7 +107,11 @@ public class LingeringClickTooltipsPlugin extends Plugin
 
 		trivialClicksManager.initialize();
 
+		filterListManager.initialize();
+
 		textColorManager.initialize();
+
+		fadeManager.initialize();
 	}
 
 	@Override
@@ -110,7 +128,13 @@ public class LingeringClickTooltipsPlugin extends Plugin
 
 		trivialClicksManager.destroy();
 
+		filterListManager.destroy();
+
 		textColorManager.destroy();
+
+		fadeManager.destroy();
+
+		settingsManager.destroy();
 	}
 
 	@Provides
@@ -124,14 +148,18 @@ public class LingeringClickTooltipsPlugin extends Plugin
 	{
 		if (event.getGroup().equals(LingeringClickTooltipsConfig.GROUP_NAME))
 		{
+			settingsManager.updateFromConfig(event.getKey()); // first, so everything below sees the new settings
 			trivialClicksManager.updateFromConfig(event.getKey());
+			filterListManager.updateFromConfig(event.getKey());
 			textColorManager.updateFromConfig(event.getKey());
+			fadeManager.updateFromConfig(event.getKey());
 			overlay.updateFromConfig(event.getKey());
 			queueManager.clear(event.getKey());
 		}
 		else if (event.getGroup().equals(runeLiteConfig.GROUP_NAME))
 		{
 			textColorManager.updateFromConfig(event.getKey());
+			overlay.updateFromConfig(event.getKey());
 		}
 	}
 
@@ -146,4 +174,10 @@ public class LingeringClickTooltipsPlugin extends Plugin
 	{
 		queueManager.processTick();
 	}
+
+	@Subscribe
+	public void onCommandExecuted(CommandExecuted event)
+	{
+		filterListManager.executeCommand(event.getCommand(), event.getArguments());
+	}
 }
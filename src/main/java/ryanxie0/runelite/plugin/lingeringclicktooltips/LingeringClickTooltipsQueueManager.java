@@ -27,14 +27,21 @@ package ryanxie0.runelite.plugin.lingeringclicktooltips;
 
 import lombok.AccessLevel;
 import lombok.Getter;
+import net.runelite.api.Client;
+import net.runelite.api.MenuAction;
+import net.runelite.api.NPC;
 import net.runelite.api.events.MenuOptionClicked;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFrameClock;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterListManager;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsClickRecord;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
 import javax.inject.Inject;
-import java.util.LinkedList;
+import java.awt.Point;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsSettingsManager.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.color.LingeringClickTooltipsColor.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.color.LingeringClickTooltipsColorConstants.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFade.*;
@@ -46,11 +53,27 @@ import static ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringC
 
 public class LingeringClickTooltipsQueueManager {
 
+    private static final int MAXIMUM_BATCHED_CLICKS = 8; // older clicks of the tick are dropped beyond this
+    private static final String LINE_BREAK = "</br>";
+
     @Inject
     private LingeringClickTooltipsConfig config;
 
+    @Inject
+    private LingeringClickTooltipsFrameClock frameClock;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private LingeringClickTooltipsFilterListManager filterListManager;
+
     @Getter(AccessLevel.PACKAGE)
-    private Queue<LingeringClickTooltipsWrapper> tooltips;
+    private LingeringClickTooltipsRingBuffer tooltips;
+
+    private LingeringClickTooltipsExpiryWheel expiryWheel;
+
+    private List<LingeringClickTooltipsWrapper> expiredTooltips; // reused by each flush
 
     @Getter(AccessLevel.PACKAGE)
     private LingeringClickTooltipsWrapper fixedLocationTooltip;
@@ -58,141 +81,382 @@ public class LingeringClickTooltipsQueueManager {
     @Getter(AccessLevel.PACKAGE)
     private LingeringClickTooltipsWrapper infoTooltip;
 
-    private LingeringClickTooltipsWrapper tickSyncTooltip;
-
-    private List<LingeringClickTooltipsWrapper> tooltipsToFlush;
+    private List<LingeringClickTooltipsClickRecord> tickSyncClicks; // clicks waiting for the next game tick
 
     private LingeringClickTooltipsInputListener inputListener;
 
+    @Getter(AccessLevel.PACKAGE)
+    private final LingeringClickTooltipsCommandQueue commandQueue = new LingeringClickTooltipsCommandQueue();
+
     @Getter(AccessLevel.PACKAGE)
     private String lastUnfilteredTooltipText; // used for peeking while no filter mode is enabled
 
-    private String lastTooltipText; // used for managing filter lists
+    // used for managing filter lists, the tooltip text is only built when needed
+    private String lastOption;
+    private String lastTarget;
+    private long lastClickKey;
 
     private String lastInfoTooltipText; // used for optimizing info tooltips
 
     /**
-     * Creates a new tooltip from a click. Builds the raw tooltip text, applies color tags, checks for
-     * blocked/bypass clicks, then sets the currently rendered tooltip.
+     * Creates a new tooltip from a click in stages, so that clicks which will not show a tooltip exit early. Hide mode
+     * and the filter mode are checked first, as a hidden click with nothing to block needs neither its key nor its
+     * text. The blocking decision then runs, as it may consume the click even while tooltips are hidden, and only
+     * builds the text of the click if a filter list is checked. Trivial clicks and filter lists are then checked
+     * against the raw option and target, and only clicks which will render build their tooltip text and color tags.
+     * The input state is read once, so every decision made for the click sees the same modifier keys and the same
+     * settings.
      * @param event the event fired when the user left clicks
      */
     public void createNewTooltip(MenuOptionClicked event)
     {
-        String rawTooltipText = getRawTooltipText(event.getMenuOption(), event.getMenuTarget());
-        String tooltipText = applyCustomTextColor(rawTooltipText, config.overrideMenuColors());
-        lastTooltipText = tooltipText;
-        tooltipText = getBlockedClickText(tooltipText, event) + tooltipText;
-        setRenderedTooltip(tooltipText);
+        long inputState = inputListener.getInputState();
+        LingeringClickTooltipsSettings settings = getSettings();
+        String option = event.getMenuOption();
+        String target = event.getMenuTarget();
+        lastOption = option;
+        lastTarget = target;
+
+        boolean isHideMode = isHideMode(
+            LingeringClickTooltipsInputListener.isHide(inputState),
+            LingeringClickTooltipsInputListener.isCtrlPressed(inputState),
+            settings.isCtrlTogglesHide()
+        );
+        if (isHideMode && settings.getFilterMode() == NONE)
+        {
+            lastClickKey = NO_CLICK_KEY; // the click may still be listed by its text
+            return; // nothing to block and nothing to show
+        }
+
+        long clickKey = resolveClickKey(event);
+        lastClickKey = clickKey;
+
+        // a hidden click is only checked against the filter lists when they may block it
+        String filterableText = isHideMode && !settings.isBlockFilteredClicks() ? null : getFilterableText(option, target);
+        String blockedClickText = getBlockedClickText(filterableText, clickKey, event, inputState, settings);
+        if (isHideMode)
+        {
+            return;
+        }
+
+        if (blockedClickText.isEmpty())
+        {
+            if (isTrivialClick(filterableText, settings) || isFilteredByList(filterableText, clickKey, settings))
+            {
+                return;
+            }
+            setRenderedTooltip(getTooltipText(option, target, settings), settings);
+        }
+        else
+        {   // blocked and bypass clicks are rare, their full text is checked before rendering
+            String tooltipText = getBlockedClickTextWithColor(blockedClickText) + getTooltipText(option, target, settings);
+            if (shouldRenderTooltip(tooltipText, false, false, clickKey, settings))
+            {
+                setRenderedTooltip(tooltipText, settings);
+            }
+        }
     }
 
     /**
-     * Gets the text for a blocked click and consumes the MenuOptionClicked event, if applicable.
-     * @param tooltipText the text which may be blocked by a filter list
+     * Only clicks on NPCs, objects and ground items are keyed, as their identifier is the id of what was clicked.
+     * Other identifiers, such as a player index or widget op, would match unrelated clicks later on. NPC menu entries
+     * are identified by the index of the NPC in the scene, which is replaced by the id of the NPC so that a filtered
+     * NPC stays filtered when it respawns.
      * @param event the event fired when the user left clicks
-     * @return text indicating a block/bypass, proper formatting and color tags applied, empty string if N/A
+     * @return the key of the click from its menu action and identifier, NO_CLICK_KEY if the click is only filtered
+     * by its text
      */
-    private String getBlockedClickText(String tooltipText, MenuOptionClicked event)
+    private long resolveClickKey(MenuOptionClicked event)
+    {
+        MenuAction menuAction = event.getMenuAction();
+        int identifier = event.getId();
+        switch (menuAction)
+        {
+            case NPC_FIRST_OPTION:
+            case NPC_SECOND_OPTION:
+            case NPC_THIRD_OPTION:
+            case NPC_FOURTH_OPTION:
+            case NPC_FIFTH_OPTION:
+            case SPELL_CAST_ON_NPC:
+            case ITEM_USE_ON_NPC:
+            case EXAMINE_NPC:
+                NPC[] npcs = client.getCachedNPCs();
+                if (identifier < 0 || identifier >= npcs.length || npcs[identifier] == null)
+                {
+                    return NO_CLICK_KEY;
+                }
+                identifier = npcs[identifier].getId();
+                break;
+            case GAME_OBJECT_FIRST_OPTION:
+            case GAME_OBJECT_SECOND_OPTION:
+            case GAME_OBJECT_THIRD_OPTION:
+            case GAME_OBJECT_FOURTH_OPTION:
+            case GAME_OBJECT_FIFTH_OPTION:
+            case SPELL_CAST_ON_GAME_OBJECT:
+            case ITEM_USE_ON_GAME_OBJECT:
+            case EXAMINE_OBJECT:
+            case GROUND_ITEM_FIRST_OPTION:
+            case GROUND_ITEM_SECOND_OPTION:
+            case GROUND_ITEM_THIRD_OPTION:
+            case GROUND_ITEM_FOURTH_OPTION:
+            case GROUND_ITEM_FIFTH_OPTION:
+            case SPELL_CAST_ON_GROUND_ITEM:
+            case ITEM_USE_ON_GROUND_ITEM:
+            case EXAMINE_ITEM_GROUND:
+                break;
+            default:
+                return NO_CLICK_KEY;
+        }
+        return getClickKey(menuAction.getId(), identifier);
+    }
+
+    /**
+     * @param option the menu option selected by the user
+     * @param target the menu target selected by the user
+     * @return the raw tooltip text with tags removed, only allocates if there is a target or the text contains tags
+     */
+    private static String getFilterableText(String option, String target)
+    {
+        String rawTooltipText = getRawTooltipText(option, target);
+        return rawTooltipText.indexOf('<') < 0 ? rawTooltipText : removeTags(rawTooltipText);
+    }
+
+    /**
+     * @param option the menu option selected by the user
+     * @param target the menu target selected by the user
+     * @param settings the snapshot of the configuration settings for the plugin
+     * @return the tooltip text with the custom text color applied, as it will be rendered
+     */
+    private static String getTooltipText(String option, String target, LingeringClickTooltipsSettings settings)
+    {
+        return applyCustomTextColor(getRawTooltipText(option, target), settings.isOverrideMenuColors());
+    }
+
+    /**
+     * @return the tooltip text of the last click including trivial clicks, built on demand for managing filter lists,
+     * null if there was no click
+     */
+    private String getLastTooltipText()
+    {
+        return lastOption == null ? null : getTooltipText(lastOption, lastTarget, getSettings());
+    }
+
+    /**
+     * Gets the keywords for a blocked click and consumes the MenuOptionClicked event, if applicable.
+     * @param filterableText the raw text of the click with tags removed, which may be blocked by a filter list, null if
+     * filter lists do not block clicks
+     * @param clickKey the key of the click from its menu action and identifier, which may be blocked by a filter list
+     * @param event the event fired when the user left clicks
+     * @param inputState the snapshot of the input state taken for the click
+     * @param settings the snapshot of the configuration settings taken for the click
+     * @return keywords indicating a block/bypass without formatting, empty string if N/A
+     */
+    private static String getBlockedClickText(String filterableText, long clickKey, MenuOptionClicked event, long inputState, LingeringClickTooltipsSettings settings)
     {
         String blockedClickText = "";
-        if (config.filterMode() == NONE)
+        if (settings.getFilterMode() == NONE)
         {
             return blockedClickText;
         }
-        else if (config.shiftBlocks() && inputListener.isShiftPressed())
+        else if (settings.isShiftBlocks() && LingeringClickTooltipsInputListener.isShiftPressed(inputState))
         {
             event.consume();
             blockedClickText = BLOCKED_BY + SHIFT;
         }
-        else if (config.blockFilteredClicks() && isFilteredByList(removeTags(tooltipText), config))
+        else if (settings.isBlockFilteredClicks() && isFilteredByList(filterableText, clickKey, settings))
         {
-            if (config.ctrlBypassesBlock() && inputListener.isCtrlPressed())
+            if (settings.isCtrlBypassesBlock() && LingeringClickTooltipsInputListener.isCtrlPressed(inputState))
             {
-                blockedClickText = BYPASS + config.filterMode();
+                blockedClickText = BYPASS + settings.getFilterMode();
             }
             else
             {
                 event.consume();
-                blockedClickText = BLOCKED_BY + config.filterMode();
+                blockedClickText = BLOCKED_BY + settings.getFilterMode();
             }
         }
-        return getBlockedClickTextWithColor(blockedClickText);
+        return blockedClickText;
     }
 
     /**
-     * Builds a tooltip using tooltipText, then assigns the tooltip to the currently rendered variable.
+     * Builds a tooltip using tooltipText, then assigns the tooltip to the currently rendered variable. Only called
+     * for clicks which passed the filtering stages.
      * @param tooltipText the tooltip text that will be rendered
+     * @param settings the snapshot of the configuration settings taken for the click
      */
-    private void setRenderedTooltip(String tooltipText)
+    private void setRenderedTooltip(String tooltipText, LingeringClickTooltipsSettings settings)
     {
-        if (shouldRenderTooltip(tooltipText, inputListener.isHide(), inputListener.isCtrlPressed(), config))
-        {
-            LingeringClickTooltipsWrapper tooltip = buildTooltipWrapper(
-                tooltipText,
-                getOffsetLocation(inputListener.getLastClickPoint(), config),
-                getTooltipBackgroundColor(tooltipText),
-                false,
-                config
-            );
-            if (config.tickSyncMode())
-            {
-                tickSyncTooltip = tooltip;
-            }
-            else if (config.tooltipLocation() == LingeringClickTooltipsLocation.FIXED)
+        Point location = getOffsetLocation(inputListener.getLastClickPoint(), settings);
+        lastUnfilteredTooltipText = tooltipText;
+        if (settings.isTickSyncMode())
+        {   // the tooltip is built at the next game tick
+            if (!settings.isTickBatchMode())
             {
-                fixedLocationTooltip = tooltip;
+                tickSyncClicks.clear();
             }
-            else
+            else if (tickSyncClicks.size() == MAXIMUM_BATCHED_CLICKS)
             {
-                addTooltip(tooltip);
+                tickSyncClicks.remove(0);
             }
-            lastUnfilteredTooltipText = tooltipText;
+            tickSyncClicks.add(new LingeringClickTooltipsClickRecord(tooltipText, location));
+            return;
+        }
+
+        if (!coalesceTooltip(tooltipText, location, settings))
+        {
+            assignTooltip(buildTooltipWrapper(
+                tooltipText,
+                location,
+                getTooltipBackgroundColor(tooltipText),
+                false,
+                frameClock.now()
+            ), settings);
+        }
+    }
+
+    /**
+     * Assigns a new tooltip to the fixed location tooltip or adds it to the queue, depending on tooltip location.
+     * @param tooltip the tooltip wrapper to assign
+     * @param settings the snapshot of the configuration settings for the plugin
+     */
+    private void assignTooltip(LingeringClickTooltipsWrapper tooltip, LingeringClickTooltipsSettings settings)
+    {
+        if (settings.getTooltipLocation() == LingeringClickTooltipsLocation.FIXED)
+        {
+            fixedLocationTooltip = tooltip;
+        }
+        else
+        {
+            addTooltip(tooltip, settings);
+        }
+    }
+
+    /**
+     * When coalesce mode is enabled, refreshes the most recent tooltip if tooltipText repeats it and counts the
+     * repeat, instead of building a new tooltip.
+     * @param tooltipText the tooltip text of the click
+     * @param location the location of the click, null if location is not necessary
+     * @param settings the snapshot of the configuration settings for the plugin
+     * @return whether the click was coalesced into the most recent tooltip
+     */
+    private boolean coalesceTooltip(String tooltipText, Point location, LingeringClickTooltipsSettings settings)
+    {
+        if (!settings.isCoalesceMode())
+        {
+            return false;
+        }
+
+        boolean isFixed = settings.getTooltipLocation() == LingeringClickTooltipsLocation.FIXED;
+        LingeringClickTooltipsWrapper tooltip = isFixed ? fixedLocationTooltip : tooltips.peekNewest();
+        if (tooltip == null || tooltip.isFaded() || !tooltip.getText().equals(tooltipText))
+        {
+            return false;
+        }
+
+        applyRepeat(tooltip, location);
+        refreshTooltip(tooltip, frameClock.now());
+        if (!isFixed && !settings.isPermanentTooltips() && !settings.isTrackerMode())
+        {   // the entry with the previous deadline is discarded by the wheel
+            expiryWheel.schedule(tooltip, LingeringClickTooltipsExpiryWheel.calculateDeadline(tooltip));
         }
+        return true;
     }
 
     /**
-     * Adds a tooltip wrapper to the queue. If doing so were to increase the queue size beyond maximumTooltipsShown,
-     * adds the head of the queue to flush.
+     * Adds a tooltip wrapper to the queue and schedules its expiry. The queue holds at most maximumTooltipsShown
+     * tooltips, so doing so may evict the oldest tooltip. Permanent tooltips never expire and are not scheduled.
      * @param tooltip the tooltip wrapper to add to the queue
+     * @param settings the snapshot of the configuration settings for the plugin
      */
-    private void addTooltip(LingeringClickTooltipsWrapper tooltip)
+    private void addTooltip(LingeringClickTooltipsWrapper tooltip, LingeringClickTooltipsSettings settings)
     {
         tooltips.add(tooltip);
-        if (tooltips.size() > config.maximumTooltipsShown())
+        if (!settings.isPermanentTooltips() && !settings.isTrackerMode())
         {
-            tooltipsToFlush.add(tooltips.peek());
+            expiryWheel.schedule(tooltip, LingeringClickTooltipsExpiryWheel.calculateDeadline(tooltip));
         }
     }
 
     /**
-     * Assigns tickSyncTooltip to the appropriate variable, then consumes it. Called on each game tick.
+     * Builds the tooltip for the clicks collected since the last game tick, then consumes them. In tick batch mode
+     * every click of the tick is shown as its own line of a single tooltip, otherwise only the last click is shown.
+     * Called on each game tick.
      */
     public void processTick()
     {
-        if (config.tickSyncMode() && tickSyncTooltip != null)
+        LingeringClickTooltipsSettings settings = getSettings();
+        if (!settings.isTickSyncMode() || tickSyncClicks.isEmpty())
         {
-            refreshTooltipTimeOfCreation(tickSyncTooltip);
-            if (config.tooltipLocation() == LingeringClickTooltipsLocation.FIXED)
+            return;
+        }
+
+        LingeringClickTooltipsClickRecord lastClick = tickSyncClicks.get(tickSyncClicks.size() - 1);
+        String tooltipText = lastClick.getTooltipText();
+        if (tickSyncClicks.size() > 1)
+        {
+            StringBuilder batchedTooltipText = new StringBuilder();
+            for (LingeringClickTooltipsClickRecord click : tickSyncClicks)
             {
-                fixedLocationTooltip = tickSyncTooltip;
+                if (batchedTooltipText.length() > 0)
+                {
+                    batchedTooltipText.append(LINE_BREAK);
+                }
+                batchedTooltipText.append(click.getTooltipText());
             }
-            else
+            tooltipText = batchedTooltipText.toString();
+        }
+        tickSyncClicks.clear();
+
+        if (!coalesceTooltip(tooltipText, lastClick.getLocation(), settings))
+        {
+            assignTooltip(buildTooltipWrapper(
+                tooltipText,
+                lastClick.getLocation(),
+                getTooltipBackgroundColor(lastClick.getTooltipText()), // the last click decides the color of the batch
+                false,
+                frameClock.now()
+            ), settings);
+        }
+    }
+
+    /**
+     * Carries out the commands published by the input listener since the last call. Called once at the beginning of
+     * each render, so info tooltips are only ever mutated on the client thread.
+     */
+    public void processCommands()
+    {
+        LingeringClickTooltipsCommand command;
+        while ((command = commandQueue.poll()) != null)
+        {
+            switch (command)
             {
-                addTooltip(tickSyncTooltip);
+                case HIDE_TOOLTIPS:
+                    createHideModeInfoTooltip(true);
+                    break;
+                case SHOW_TOOLTIPS:
+                    createHideModeInfoTooltip(false);
+                    break;
+                case UPDATE_FILTER_LISTS:
+                    createFilterListUpdateInfoTooltip();
+                    break;
+                case PEEK:
+                    createPeekInfoTooltip();
+                    break;
             }
-            tickSyncTooltip = null;
         }
     }
 
     /**
-     * Creates a new info tooltip, which will begin rendering at the next render cycle. If the text did not change,
-     * infoTooltip is refreshed instead.
+     * Creates a new info tooltip, which will begin rendering in the current render cycle. If the text did not change,
+     * infoTooltip is refreshed instead. Info tooltips are only created while processing commands, after the frame
+     * clock has advanced, so they are stamped with the frame time rather than the current time.
      * @param infoTooltipText the text of the info tooltip, contains color tags
      */
     private void createNewInfoTooltip(String infoTooltipText)
     {
         if (lastInfoTooltipText != null && !lastInfoTooltipText.isEmpty() && removeTags(infoTooltipText).equals(removeTags(lastInfoTooltipText)))
         {
-            refreshInfoTooltip(infoTooltip, config);
+            refreshInfoTooltip(infoTooltip, frameClock.getFrameTime());
         }
         else
         {
@@ -201,7 +465,7 @@ public class LingeringClickTooltipsQueueManager {
                 null,
                 getTooltipBackgroundColor(infoTooltipText),
                 true,
-                config
+                frameClock.getFrameTime()
             );
             lastInfoTooltipText = infoTooltipText;
         }
@@ -225,7 +489,7 @@ public class LingeringClickTooltipsQueueManager {
      */
     public void createFilterListUpdateInfoTooltip()
     {
-        String filterListUpdateTooltipText = updateFilterLists(config, lastTooltipText, false);
+        String filterListUpdateTooltipText = updateFilterLists(filterListManager, getSettings().getFilterMode(), getLastTooltipText(), lastClickKey, false);
         if (!filterListUpdateTooltipText.isEmpty())
         {
             String filterListUpdateTooltipTextWithColor = applyInfoTooltipTextColor(filterListUpdateTooltipText, false);
@@ -239,7 +503,7 @@ public class LingeringClickTooltipsQueueManager {
      */
     public void createPeekInfoTooltip()
     {
-        String filterListUpdateTooltipText = updateFilterLists(config, lastTooltipText, true);
+        String filterListUpdateTooltipText = updateFilterLists(filterListManager, getSettings().getFilterMode(), getLastTooltipText(), lastClickKey, true);
         if (!filterListUpdateTooltipText.isEmpty() && !filterListUpdateTooltipText.contains(NO_FILTER_MODE_ENABLED))
         {
             String filterListUpdateTooltipTextWithColor = applyInfoTooltipTextColor(filterListUpdateTooltipText, true);
@@ -253,30 +517,27 @@ public class LingeringClickTooltipsQueueManager {
     }
 
     /**
-     * Adds a tooltip to tooltipsToFlush.
-     * @param tooltip the tooltip to flush
-     */
-    public void addTooltipToFlush(LingeringClickTooltipsWrapper tooltip)
-    {
-        tooltipsToFlush.add(tooltip);
-    }
-
-    /**
-     * Flushes the collected tooltips from the queue. Called once at the beginning of each render.
+     * Flushes the tooltips whose duration has passed from the queue. Called once at the beginning of each render, only
+     * the expired tooltips are visited.
      */
     public void flushTooltips()
     {
-        for (LingeringClickTooltipsWrapper tooltip : tooltipsToFlush)
+        expiryWheel.advance(frameClock.getFrameTime(), expiredTooltips);
+        for (LingeringClickTooltipsWrapper tooltip : expiredTooltips)
         {
+            tooltip.setFaded(true);
             tooltips.remove(tooltip);
         }
+        expiredTooltips.clear();
     }
 
     public void initialize(LingeringClickTooltipsInputListener inputListener)
     {
         this.inputListener = inputListener;
-        tooltips = new LinkedList<>();
-        tooltipsToFlush = new LinkedList<>();
+        tooltips = new LingeringClickTooltipsRingBuffer(config.maximumTooltipsShown());
+        expiryWheel = new LingeringClickTooltipsExpiryWheel();
+        expiredTooltips = new ArrayList<>();
+        tickSyncClicks = new ArrayList<>();
     }
 
     public void destroy()
@@ -286,30 +547,49 @@ public class LingeringClickTooltipsQueueManager {
         tooltips.clear();
         tooltips = null;
 
-        tooltipsToFlush.clear();
-        tooltipsToFlush = null;
+        expiryWheel.clear();
+        expiryWheel = null;
+        expiredTooltips = null;
+
+        tickSyncClicks.clear();
+        tickSyncClicks = null;
 
         fixedLocationTooltip = null;
 
         infoTooltip = null;
 
-        lastTooltipText = null;
+        lastOption = null;
+        lastTarget = null;
         lastUnfilteredTooltipText = null;
         lastInfoTooltipText = null;
     }
 
     public void clear(String configKey)
     {
-        if (!configKey.equals(OVERLAY_PREFERRED_LOCATION) && !configKey.equals(OVERLAY_PREFERRED_POSITION))
+        // filter lists are persisted some time after they are edited in game, which should not clear the tooltips
+        boolean isFilterListKey = configKey.equals(BLACKLIST_CSV) || configKey.equals(WHITELIST_CSV)
+            || configKey.equals(BLACKLIST_IDS_CSV) || configKey.equals(WHITELIST_IDS_CSV)
+            || configKey.equals(BLACKLIST_SAVED_TO_FILE) || configKey.equals(WHITELIST_SAVED_TO_FILE);
+
+        if (!configKey.equals(OVERLAY_PREFERRED_LOCATION) && !configKey.equals(OVERLAY_PREFERRED_POSITION) && !isFilterListKey)
         {
-            tooltips.clear();
-            tooltipsToFlush.clear();
+            if (configKey.equals(MAXIMUM_TOOLTIPS_SHOWN))
+            {
+                tooltips = new LingeringClickTooltipsRingBuffer(config.maximumTooltipsShown());
+            }
+            else
+            {
+                tooltips.clear();
+            }
+            expiryWheel.clear();
+            tickSyncClicks.clear();
             fixedLocationTooltip = null;
         }
 
-        if (!configKey.equals(BLACKLIST_CSV) && !configKey.equals(WHITELIST_CSV))
+        if (!isFilterListKey)
         {
-            lastTooltipText = null;
+            lastOption = null;
+            lastTarget = null;
             lastUnfilteredTooltipText = null;
             lastInfoTooltipText = null;
         }
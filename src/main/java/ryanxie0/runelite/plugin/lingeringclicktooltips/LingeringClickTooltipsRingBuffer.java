@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import lombok.Getter;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
+
+import java.util.Arrays;
+
+/**
+ * Fixed capacity store for the tooltips currently being rendered, oldest first. Tooltips are addressed by their
+ * index from the oldest slot, so adding, evicting and expiring a tooltip never searches the store or compares
+ * wrappers by value. Expired tooltips leave a hole which is skipped until it reaches the head.
+ */
+public class LingeringClickTooltipsRingBuffer {
+
+    // guards against allocating an unreasonably large store, far more tooltips than fit on screen
+    static final int MAXIMUM_CAPACITY = 1024;
+
+    private final LingeringClickTooltipsWrapper[] slots;
+
+    private int head; // slot of the oldest tooltip
+    private int span; // number of slots between head and tail, including holes
+
+    @Getter
+    private int size; // number of tooltips, excluding holes
+
+    public LingeringClickTooltipsRingBuffer(int capacity)
+    {
+        slots = new LingeringClickTooltipsWrapper[Math.max(1, Math.min(capacity, MAXIMUM_CAPACITY))];
+    }
+
+    /**
+     * Adds a tooltip as the newest in the store. If the store is full, the oldest tooltip is evicted.
+     * @param tooltip the tooltip to add
+     */
+    public void add(LingeringClickTooltipsWrapper tooltip)
+    {
+        if (span == slots.length)
+        {
+            if (size == slots.length)
+            {
+                remove(0);
+            }
+            else
+            {
+                compact(); // only reached when a newer tooltip expired before an older one
+            }
+        }
+        final int slot = (head + span) % slots.length;
+        slots[slot] = tooltip;
+        tooltip.setRingBufferSlot(slot);
+        span++;
+        size++;
+    }
+
+    /**
+     * @param index the index of the slot, counted from the oldest tooltip
+     * @return the tooltip in the slot, null if the slot is a hole
+     */
+    public LingeringClickTooltipsWrapper get(int index)
+    {
+        return slots[(head + index) % slots.length];
+    }
+
+    /**
+     * @return the newest tooltip, null if the store is empty
+     */
+    public LingeringClickTooltipsWrapper peekNewest()
+    {
+        for (int i = span - 1; i >= 0; i--)
+        {
+            final LingeringClickTooltipsWrapper tooltip = get(i);
+            if (tooltip != null)
+            {
+                return tooltip;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the tooltip in a slot. Holes at the head of the store are reclaimed immediately.
+     * @param index the index of the slot, counted from the oldest tooltip
+     */
+    public void remove(int index)
+    {
+        removeSlot((head + index) % slots.length);
+    }
+
+    /**
+     * Removes a tooltip through the slot it was stored in, comparing by identity rather than by value.
+     * @param tooltip the tooltip to remove
+     * @return whether the tooltip was in the store, it may have been evicted already
+     */
+    public boolean remove(LingeringClickTooltipsWrapper tooltip)
+    {
+        final int slot = tooltip.getRingBufferSlot();
+        if (slot < 0 || slot >= slots.length || slots[slot] != tooltip)
+        {
+            return false;
+        }
+        removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * @return the number of slots between the oldest and newest tooltip, including holes. Slots from 0 up to span
+     * are valid for get and remove.
+     */
+    public int span()
+    {
+        return span;
+    }
+
+    public int capacity()
+    {
+        return slots.length;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < span; i++)
+        {
+            final LingeringClickTooltipsWrapper tooltip = get(i);
+            if (tooltip != null)
+            {
+                tooltip.setRingBufferSlot(-1);
+            }
+        }
+        Arrays.fill(slots, null);
+        head = 0;
+        span = 0;
+        size = 0;
+    }
+
+    private void removeSlot(int slot)
+    {
+        final LingeringClickTooltipsWrapper tooltip = slots[slot];
+        if (tooltip == null)
+        {
+            return;
+        }
+        tooltip.setRingBufferSlot(-1);
+        slots[slot] = null;
+        size--;
+
+        while (span > 0 && slots[head] == null)
+        {
+            head = (head + 1) % slots.length;
+            span--;
+        }
+    }
+
+    /**
+     * Moves every tooltip towards the head, preserving their order, so that all holes end up past the tail.
+     */
+    private void compact()
+    {
+        int write = 0;
+        for (int read = 0; read < span; read++)
+        {
+            final LingeringClickTooltipsWrapper tooltip = get(read);
+            if (tooltip != null)
+            {
+                final int slot = (head + write++) % slots.length;
+                slots[(head + read) % slots.length] = null;
+                slots[slot] = tooltip;
+                tooltip.setRingBufferSlot(slot);
+            }
+        }
+        span = write;
+    }
+}
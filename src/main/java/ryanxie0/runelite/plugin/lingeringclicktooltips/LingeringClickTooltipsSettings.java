@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import lombok.Builder;
+import lombok.Value;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterMode;
+
+/**
+ * Immutable snapshot of the config values read while rendering and processing clicks. Reading a field is a plain
+ * field access, whereas every config call goes through the reflective config proxy.
+ */
+@Value
+@Builder
+public class LingeringClickTooltipsSettings {
+    LingeringClickTooltipsLocation tooltipLocation;
+    boolean permanentTooltips;
+    boolean trackerMode;
+    int maximumTooltipsShown;
+    boolean tickSyncMode;
+    boolean tickBatchMode;
+    boolean coalesceMode;
+    boolean overrideMenuColors;
+    LingeringClickTooltipsFilterMode filterMode;
+    boolean blockFilteredClicks;
+    boolean showBlockedClicks;
+    boolean shiftBlocks;
+    boolean ctrlBypassesBlock;
+    boolean ctrlTogglesHide;
+    boolean hideTrivialClicks;
+    int tooltipXOffset;
+    int tooltipYOffset;
+    int clampXPadding;
+    int clampYPadding;
+
+    /**
+     * @param config the configuration settings for the plugin
+     * @return a snapshot of the current config values
+     */
+    public static LingeringClickTooltipsSettings fromConfig(LingeringClickTooltipsConfig config)
+    {
+        return LingeringClickTooltipsSettings.builder()
+            .tooltipLocation(config.tooltipLocation())
+            .permanentTooltips(config.permanentTooltips())
+            .trackerMode(config.trackerMode())
+            .maximumTooltipsShown(config.maximumTooltipsShown())
+            .tickSyncMode(config.tickSyncMode())
+            .tickBatchMode(config.tickBatchMode())
+            .coalesceMode(config.coalesceMode())
+            .overrideMenuColors(config.overrideMenuColors())
+            .filterMode(config.filterMode())
+            .blockFilteredClicks(config.blockFilteredClicks())
+            .showBlockedClicks(config.showBlockedClicks())
+            .shiftBlocks(config.shiftBlocks())
+            .ctrlBypassesBlock(config.ctrlBypassesBlock())
+            .ctrlTogglesHide(config.ctrlTogglesHide())
+            .hideTrivialClicks(config.hideTrivialClicks())
+            .tooltipXOffset(config.tooltipXOffset())
+            .tooltipYOffset(config.tooltipYOffset())
+            .clampXPadding(config.clampXPadding())
+            .clampYPadding(config.clampYPadding())
+            .build();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import javax.inject.Inject;
+
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig.*;
+
+public class LingeringClickTooltipsSettingsManager {
+
+    @Inject
+    private LingeringClickTooltipsConfig config;
+
+    // replaced whole on each change, so readers on any thread see either the old or the new snapshot
+    private static volatile LingeringClickTooltipsSettings settings;
+
+    public void updateFromConfig(String configKey)
+    {
+        if (!configKey.equals(OVERLAY_PREFERRED_LOCATION) && !configKey.equals(OVERLAY_PREFERRED_POSITION))
+        {
+            settings = LingeringClickTooltipsSettings.fromConfig(config);
+        }
+    }
+
+    /**
+     * @return the snapshot of the config values as of the last config change
+     */
+    public static LingeringClickTooltipsSettings getSettings()
+    {
+        return settings;
+    }
+
+    public void initialize()
+    {
+        settings = LingeringClickTooltipsSettings.fromConfig(config);
+    }
+
+    public void destroy()
+    {
+        settings = null;
+    }
+}
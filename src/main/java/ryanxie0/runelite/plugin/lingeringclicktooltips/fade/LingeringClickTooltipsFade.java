@@ -25,74 +25,78 @@
  */
 package ryanxie0.runelite.plugin.lingeringclicktooltips.fade;
 
-import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
 
-import java.time.Duration;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeUtil.*;
 
 public class LingeringClickTooltipsFade {
 
     /**
-     * Calculates the alpha value for a tooltip. It is dependent on which phase of fade the tooltip is in.
+     * Calculates the alpha value for a tooltip. It is dependent on which phase of fade the tooltip is in. Only the
+     * fade profile attached to the tooltip is read, never the config.
      * @param tooltip the tooltip for which fade will be calculated
-     * @param config the configuration settings for the plugin
+     * @param now the time of the current frame in ms, from LingeringClickTooltipsFrameClock
      * @return the tooltip alpha modifier which will be used during rendering
      */
-    public static double calculateAlphaModifier(LingeringClickTooltipsWrapper tooltip, LingeringClickTooltipsConfig config)
+    public static double calculateAlphaModifier(LingeringClickTooltipsWrapper tooltip, long now)
     {
-        double alphaModifier = getMaximumOpacity(config);
-
-        Duration sinceCreation = Duration.between(tooltip.getTimeOfCreation(), Instant.now());
+        LingeringClickTooltipsFadeProfile fadeProfile = tooltip.getFadeProfile();
+        double alphaModifier = fadeProfile.getMaximumOpacity();
 
-        int fadeInPeriodThreshold = calculateFadeInPeriodThreshold(config, tooltip.isInfoTooltip());
-        int fadeOutPeriodThreshold = calculateFadeoutPeriodThreshold(config, tooltip.isInfoTooltip());
+        long sinceCreation = now - tooltip.getTimeOfCreation();
 
-        if (isInFadeInPeriod(sinceCreation.toMillis(), fadeInPeriodThreshold))
+        if (isInFadeInPeriod(sinceCreation, fadeProfile.getFadeInPeriodThreshold()))
         {
-            alphaModifier = applyFadeIn(alphaModifier, sinceCreation.toMillis(), fadeInPeriodThreshold);
+            alphaModifier = applyFadeIn(alphaModifier, sinceCreation, fadeProfile.getFadeInPeriodThreshold());
         }
-        else if (isInFadeoutPeriod(sinceCreation.toMillis(), fadeOutPeriodThreshold))
+        else if (isInFadeoutPeriod(sinceCreation, fadeProfile.getFadeoutPeriodThreshold()))
         {
-            Duration totalTooltipDuration = tooltip.getTooltipDuration();
-            long timeRemaining = totalTooltipDuration.minus(sinceCreation).toMillis();
-            long fadeoutPeriod = totalTooltipDuration.toMillis() - fadeOutPeriodThreshold;
-            alphaModifier = applyFadeout(alphaModifier, timeRemaining, fadeoutPeriod);
+            long timeRemaining = tooltip.getTooltipDuration() - sinceCreation;
+            alphaModifier = applyFadeout(alphaModifier, timeRemaining, fadeProfile.getFadeoutPeriod());
         }
 
         return alphaModifier;
     }
 
+    /**
+     * @param tooltip the tooltip to check
+     * @param now the current time in ms, from LingeringClickTooltipsFrameClock
+     * @return whether the tooltip has yet to finish fading in
+     */
+    public static boolean isFadingIn(LingeringClickTooltipsWrapper tooltip, long now)
+    {
+        return isInFadeInPeriod(now - tooltip.getTimeOfCreation(), tooltip.getFadeProfile().getFadeInPeriodThreshold());
+    }
+
     /**
      * Used for refreshing an info tooltip in the case that its text did not change.
      * @param infoTooltip the info tooltip to refresh
+     * @param now the current time in ms, from LingeringClickTooltipsFrameClock
      */
-    public static void refreshInfoTooltip(LingeringClickTooltipsWrapper infoTooltip, LingeringClickTooltipsConfig config)
+    public static void refreshInfoTooltip(LingeringClickTooltipsWrapper infoTooltip, long now)
     {
-        if (infoTooltip.isFaded())
+        refreshTooltip(infoTooltip, now);
+    }
+
+    /**
+     * Restarts the duration of a tooltip which is shown again, without restarting the fade-in if already faded in.
+     * @param tooltip the tooltip to refresh
+     * @param now the current time in ms, from LingeringClickTooltipsFrameClock
+     */
+    public static void refreshTooltip(LingeringClickTooltipsWrapper tooltip, long now)
+    {
+        if (tooltip.isFaded())
         {   // if faded, must reset isFaded and set time of creation to now
-            infoTooltip.setFaded(false);
-            infoTooltip.setTimeOfCreation(Instant.now());
+            tooltip.setFaded(false);
+            tooltip.setTimeOfCreation(now);
             return;
         }
 
-        Duration sinceCreation = Duration.between(infoTooltip.getTimeOfCreation(), Instant.now());
-        int fadeInPeriodThreshold = calculateFadeInPeriodThreshold(config, infoTooltip.isInfoTooltip());
-        if (!isInFadeInPeriod(sinceCreation.toMillis(), fadeInPeriodThreshold))
+        long sinceCreation = now - tooltip.getTimeOfCreation();
+        int fadeInPeriodThreshold = tooltip.getFadeProfile().getFadeInPeriodThreshold();
+        if (!isInFadeInPeriod(sinceCreation, fadeInPeriodThreshold))
         {   // if not yet faded and not fading in, resets time of creation excluding the fade-in period
-            infoTooltip.setTimeOfCreation(Instant.now().minus(fadeInPeriodThreshold, ChronoUnit.MILLIS));
+            tooltip.setTimeOfCreation(now - fadeInPeriodThreshold);
         }
     }
-
-    /**
-     * Resets the time of creation of a tooltip wrapper to now.
-     * @param tooltip the tooltip to reset
-     */
-    public static void refreshTooltipTimeOfCreation(LingeringClickTooltipsWrapper tooltip)
-    {
-        tooltip.setTimeOfCreation(Instant.now());
-    }
 }
@@ -27,6 +27,9 @@ package ryanxie0.runelite.plugin.lingeringclicktooltips.fade;
 
 public class LingeringClickTooltipsFadeConstants {
 
+    // config key names
+    public static final String FADE_CURVE = "fadeCurve";
+
     // multipliers for modifying duration/fade
     public static final double LIGHT_MODE_MULTIPLIER = 0.75;
     public static final double INFO_TOOLTIP_MULTIPLIER = 1.5;
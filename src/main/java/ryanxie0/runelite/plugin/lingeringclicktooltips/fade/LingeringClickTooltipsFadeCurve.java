@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.fade;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum LingeringClickTooltipsFadeCurve
+{
+    LINEAR("Linear"),
+    EASE_IN_OUT("Ease in-out"),
+    EXPONENTIAL("Exponential"),
+    SMOOTHSTEP("Smoothstep");
+
+    private final String name;
+
+    @Override
+    public String toString()
+    {
+        return name;
+    }
+
+    /**
+     * @param progress how far along the fade is, from 0 (transparent) to 1 (opaque)
+     * @return the fraction of the maximum opacity at progress, from 0 to 1
+     */
+    public double apply(double progress)
+    {
+        switch (this)
+        {
+            case EASE_IN_OUT:
+                return (1 - Math.cos(Math.PI * progress)) / 2;
+            case EXPONENTIAL:
+                return progress <= 0 ? 0 : Math.pow(2, 10 * (progress - 1));
+            case SMOOTHSTEP:
+                return progress * progress * (3 - 2 * progress);
+            case LINEAR:
+            default:
+                return progress;
+        }
+    }
+}
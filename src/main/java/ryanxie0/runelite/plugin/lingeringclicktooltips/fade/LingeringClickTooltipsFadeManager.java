@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.fade;
+
+import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig;
+
+import javax.inject.Inject;
+
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeConstants.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeUtil.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapperUtil.*;
+
+public class LingeringClickTooltipsFadeManager {
+
+    private static final int FADE_TABLE_SIZE = 257; // 256 steps, matching the alpha levels tooltips are drawn with
+
+    @Inject
+    private LingeringClickTooltipsConfig config;
+
+    // volatile since tooltips may be faded on a different thread than the one handling config changes
+    private static volatile float[] fadeTable; // the selected fade curve sampled at evenly spaced progress
+
+    private static volatile LingeringClickTooltipsFadeProfile normalFadeProfile;
+    private static volatile LingeringClickTooltipsFadeProfile fastFadeProfile;
+    private static volatile LingeringClickTooltipsFadeProfile infoFadeProfile;
+    private static volatile boolean isFastMode;
+
+    public void updateFromConfig(String configKey)
+    {
+        if (configKey.equals(FADE_CURVE))
+        {
+            buildFadeTable(config.fadeCurve());
+        }
+        else
+        {   // cheap enough to rebuild on any change, so no fade related key can be missed
+            buildFadeProfiles();
+        }
+    }
+
+    private void buildFadeProfiles()
+    {
+        normalFadeProfile = buildFadeProfile(false, false);
+        fastFadeProfile = buildFadeProfile(false, true);
+        infoFadeProfile = buildFadeProfile(true, false);
+        isFastMode = config.fastMode();
+    }
+
+    private LingeringClickTooltipsFadeProfile buildFadeProfile(boolean isInfoTooltip, boolean isFastMode)
+    {
+        int fadeoutPeriodThreshold = calculateFadeoutPeriodThreshold(config, isInfoTooltip, isFastMode);
+        long totalDuration = calculateTotalTooltipDuration(isInfoTooltip, isFastMode, config);
+        return new LingeringClickTooltipsFadeProfile(
+            getMaximumOpacity(config),
+            calculateFadeInPeriodThreshold(config, isInfoTooltip, isFastMode),
+            fadeoutPeriodThreshold,
+            totalDuration,
+            totalDuration - fadeoutPeriodThreshold
+        );
+    }
+
+    /**
+     * @return the fade profile for new tooltips, fast if fast mode is enabled
+     */
+    public static LingeringClickTooltipsFadeProfile getTooltipFadeProfile()
+    {
+        return isFastMode ? fastFadeProfile : normalFadeProfile;
+    }
+
+    /**
+     * @return the fade profile for new info tooltips
+     */
+    public static LingeringClickTooltipsFadeProfile getInfoFadeProfile()
+    {
+        return infoFadeProfile;
+    }
+
+    private static void buildFadeTable(LingeringClickTooltipsFadeCurve fadeCurve)
+    {
+        float[] table = new float[FADE_TABLE_SIZE];
+        for (int i = 0; i < FADE_TABLE_SIZE; i++)
+        {
+            table[i] = (float) fadeCurve.apply((double) i / (FADE_TABLE_SIZE - 1));
+        }
+        fadeTable = table; // built before publishing, the volatile write makes every entry visible to readers
+    }
+
+    /**
+     * @param progress how far along the fade is, from 0 (transparent) to 1 (opaque)
+     * @return the fraction of the maximum opacity at progress according to the selected fade curve
+     */
+    public static double getFadeCurveValue(double progress)
+    {
+        if (progress <= 0)
+        {
+            return 0;
+        }
+        else if (progress >= 1)
+        {
+            return 1;
+        }
+        return fadeTable[(int) (progress * (FADE_TABLE_SIZE - 1) + 0.5)];
+    }
+
+    public void initialize()
+    {
+        buildFadeTable(config.fadeCurve());
+        buildFadeProfiles();
+    }
+
+    public void destroy()
+    {
+        fadeTable = null;
+        normalFadeProfile = null;
+        fastFadeProfile = null;
+        infoFadeProfile = null;
+    }
+}
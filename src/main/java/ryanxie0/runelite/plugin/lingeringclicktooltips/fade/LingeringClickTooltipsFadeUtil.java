@@ -28,6 +28,7 @@ package ryanxie0.runelite.plugin.lingeringclicktooltips.fade;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig;
 
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeConstants.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeManager.*;
 
 public class LingeringClickTooltipsFadeUtil {
 
@@ -50,15 +51,16 @@ public class LingeringClickTooltipsFadeUtil {
      * Returns the fade-in period threshold of a tooltip.
      * @param config the configuration settings for the plugin
      * @param isInfoTooltip whether the tooltip is an info tooltip
+     * @param isFastMode whether the tooltip is shortened by fast mode
      * @return the number of ms since creation of the tooltip at which fade-in will complete
      */
-    public static int calculateFadeInPeriodThreshold(LingeringClickTooltipsConfig config, boolean isInfoTooltip)
+    public static int calculateFadeInPeriodThreshold(LingeringClickTooltipsConfig config, boolean isInfoTooltip, boolean isFastMode)
     {
         if (isInfoTooltip)
         {
             return (int) (config.tooltipDuration() * config.tooltipFadeIn() / 100.0 / INFO_TOOLTIP_MULTIPLIER);
         }
-        else if (config.fastMode())
+        else if (isFastMode)
         {
             return (int) (config.tooltipDuration() * config.tooltipFadeIn() / 100.0 / FAST_MODE_MULTIPLIER);
         }
@@ -72,24 +74,25 @@ public class LingeringClickTooltipsFadeUtil {
      * Returns the fadeout period threshold of a tooltip.
      * @param config the configuration settings for the plugin
      * @param isInfoTooltip whether the tooltip is an info tooltip
+     * @param isFastMode whether the tooltip is shortened by fast mode
      * @return the number of ms since creation of the tooltip at which fadeout will begin
      */
-    public static int calculateFadeoutPeriodThreshold(LingeringClickTooltipsConfig config, boolean isInfoTooltip)
+    public static int calculateFadeoutPeriodThreshold(LingeringClickTooltipsConfig config, boolean isInfoTooltip, boolean isFastMode)
     {
         int fadeoutPeriodThreshold = config.tooltipDuration();
         if (isInfoTooltip)
         {
             return (int) (fadeoutPeriodThreshold * INFO_TOOLTIP_MULTIPLIER);
         }
-        else if (config.fastMode())
+        else if (isFastMode)
         {
             return (int) (fadeoutPeriodThreshold / FAST_MODE_MULTIPLIER);
         }
-        return calculateFadeInPeriodThreshold(config, isInfoTooltip) + fadeoutPeriodThreshold;
+        return calculateFadeInPeriodThreshold(config, isInfoTooltip, isFastMode) + fadeoutPeriodThreshold;
     }
 
     /**
-     * Modifies the alphaModifier during the fade-in period.
+     * Modifies the alphaModifier during the fade-in period, following the selected fade curve.
      * @param alphaModifier the alpha modifier to which fade-in will be applied
      * @param sinceCreation the time since the creation of the tooltip
      * @param fadeInPeriodThreshold the number of ms since creation of the tooltip at which fade-in will complete
@@ -97,11 +100,11 @@ public class LingeringClickTooltipsFadeUtil {
      */
     public static double applyFadeIn(double alphaModifier, long sinceCreation, long fadeInPeriodThreshold)
     {
-        return alphaModifier * sinceCreation / fadeInPeriodThreshold;
+        return alphaModifier * getFadeCurveValue((double) sinceCreation / fadeInPeriodThreshold);
     }
 
     /**
-     * Modifies the alphaModifier during the fadeout period.
+     * Modifies the alphaModifier during the fadeout period, following the selected fade curve in reverse.
      * @param alphaModifier the alpha modifier to which fadeout will be applied
      * @param timeRemaining the time remaining on the tooltip duration
      * @param fadeoutPeriod the total length of the fadeout period
@@ -109,7 +112,7 @@ public class LingeringClickTooltipsFadeUtil {
      */
     public static double applyFadeout(double alphaModifier, long timeRemaining, long fadeoutPeriod)
     {
-        return alphaModifier * timeRemaining / fadeoutPeriod;
+        return alphaModifier * getFadeCurveValue((double) timeRemaining / fadeoutPeriod);
     }
 
     /**
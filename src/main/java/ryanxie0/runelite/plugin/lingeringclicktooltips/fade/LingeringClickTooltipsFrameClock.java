@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.fade;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.function.LongSupplier;
+
+/**
+ * Monotonic clock for tooltip timing, in ms since the clock was created. The time is sampled once per frame so that
+ * every tooltip in a frame fades against the same timestamp without allocating.
+ */
+@Singleton
+public class LingeringClickTooltipsFrameClock {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final LongSupplier nanoTimeSource;
+    private final long origin;
+
+    private long frameTime;
+
+    @Inject
+    public LingeringClickTooltipsFrameClock()
+    {
+        this(System::nanoTime);
+    }
+
+    /**
+     * @param nanoTimeSource the source of the time in ns, e.g. a simulated clock
+     */
+    public LingeringClickTooltipsFrameClock(LongSupplier nanoTimeSource)
+    {
+        this.nanoTimeSource = nanoTimeSource;
+        origin = nanoTimeSource.getAsLong();
+    }
+
+    /**
+     * Samples the time for a new frame. Called once at the beginning of each render.
+     */
+    public void advanceFrame()
+    {
+        frameTime = now();
+    }
+
+    /**
+     * @return the time sampled at the beginning of the current frame, in ms
+     */
+    public long getFrameTime()
+    {
+        return frameTime;
+    }
+
+    /**
+     * @return the current time in ms, for events happening between frames such as clicks
+     */
+    public long now()
+    {
+        return (nanoTimeSource.getAsLong() - origin) / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compiled filter list. Plain entries are matched exactly through a set. Glob entries (containing *) and regex
+ * entries (wrapped in /) are compiled together into one automaton, so matching a click costs the same however many
+ * entries there are. Regex entries which are invalid, too large or need backtracking are kept as plain entries, so
+ * one entry never slows down or disables the rest of the list.
+ */
+public class LingeringClickTooltipsFilterList {
+
+    private static final char GLOB_WILDCARD = '*';
+    private static final char REGEX_DELIMITER = '/';
+
+    private final Set<String> entries = new LinkedHashSet<>(); // every entry in list order, used for persistence
+    private final Set<String> literals = new HashSet<>();
+    private final Map<String, LingeringClickTooltipsPattern> patterns = new LinkedHashMap<>(); // glob and regex entries
+    private LingeringClickTooltipsPatternAutomaton automaton; // null until the patterns are compiled after a change
+
+    private LingeringClickTooltipsFilterList()
+    {
+    }
+
+    /**
+     * @param text the tag-stripped text of a click
+     * @return whether text matches any entry of the list
+     */
+    public boolean contains(String text)
+    {
+        if (literals.contains(text))
+        {
+            return true;
+        }
+        if (patterns.isEmpty())
+        {
+            return false;
+        }
+        if (automaton == null)
+        {
+            automaton = LingeringClickTooltipsPatternAutomaton.compile(patterns.values());
+        }
+        return automaton.matches(text);
+    }
+
+    /**
+     * @param entry an entry of the filter list
+     * @return whether entry itself is in the list, as opposed to only being matched by a glob or regex entry
+     */
+    public boolean containsEntry(String entry)
+    {
+        return entries.contains(entry);
+    }
+
+    /**
+     * @param entry the entry to add, a glob or regex entry recompiles the automaton at the next match
+     * @return whether the list did not already contain entry
+     */
+    public boolean add(String entry)
+    {
+        if (!entries.add(entry))
+        {
+            return false;
+        }
+        LingeringClickTooltipsPattern pattern = parsePattern(entry);
+        if (pattern == null)
+        {
+            literals.add(entry);
+        }
+        else
+        {
+            patterns.put(entry, pattern);
+            automaton = null;
+        }
+        return true;
+    }
+
+    /**
+     * @param entry the entry to remove, a glob or regex entry recompiles the automaton at the next match
+     * @return whether the list contained entry
+     */
+    public boolean remove(String entry)
+    {
+        if (!entries.remove(entry))
+        {
+            return false;
+        }
+        if (!literals.remove(entry))
+        {
+            patterns.remove(entry);
+            automaton = null;
+        }
+        return true;
+    }
+
+    /**
+     * @return a copy of the entries of the list in the order they were added
+     */
+    public List<String> getEntries()
+    {
+        return new ArrayList<>(entries);
+    }
+
+    /**
+     * @return the number of entries in the list
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Sorts each entry into a literal or a pattern, then compiles the patterns into the automaton, so that a list
+     * compiled off the client thread is ready to match.
+     * @param entries the entries of the filter list as stored in the config
+     * @return the compiled filter list
+     */
+    public static LingeringClickTooltipsFilterList compile(List<String> entries)
+    {
+        LingeringClickTooltipsFilterList filterList = new LingeringClickTooltipsFilterList();
+        for (String entry : entries)
+        {
+            filterList.add(entry);
+        }
+        if (!filterList.patterns.isEmpty())
+        {
+            filterList.automaton = LingeringClickTooltipsPatternAutomaton.compile(filterList.patterns.values());
+        }
+        return filterList;
+    }
+
+    /**
+     * @param entry an entry of the filter list
+     * @return the glob or regex of the entry, null if it is a literal
+     */
+    private static LingeringClickTooltipsPattern parsePattern(String entry)
+    {
+        if (entry.length() > 2 && entry.charAt(0) == REGEX_DELIMITER && entry.charAt(entry.length() - 1) == REGEX_DELIMITER)
+        {
+            return LingeringClickTooltipsPattern.regex(entry.substring(1, entry.length() - 1));
+        }
+        if (entry.indexOf(GLOB_WILDCARD) >= 0)
+        {
+            return LingeringClickTooltipsPattern.glob(entry);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes filter lists as plain text files, one entry per line. Commas also separate entries, as they do
+ * in the config. Empty lines and lines starting with # are skipped.
+ */
+public class LingeringClickTooltipsFilterListFiles {
+
+    static final int READ_CHUNK_SIZE = 8192;
+    private static final char COMMENT = '#';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Streams the entries of a filter list file. The file is read through the channel and decoded in fixed size
+     * chunks, so neither the bytes nor the text of the file are ever held whole.
+     * @param path the file to read
+     * @return the entries of the file in order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<String> readFilterList(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            ByteBuffer bytes = ByteBuffer.allocate(READ_CHUNK_SIZE);
+            CharBuffer chars = CharBuffer.allocate(READ_CHUNK_SIZE);
+            StringBuilder entry = new StringBuilder();
+            List<String> entries = new ArrayList<>();
+
+            boolean isEndOfFile = false;
+            while (!isEndOfFile)
+            {
+                isEndOfFile = channel.read(bytes) < 0;
+                bytes.flip();
+                CoderResult result;
+                do
+                {
+                    result = decoder.decode(bytes, chars, isEndOfFile);
+                    if (isEndOfFile && result.isUnderflow())
+                    {
+                        decoder.flush(chars);
+                    }
+                    splitEntries(chars, entries, entry);
+                }
+                while (result.isOverflow());
+                bytes.compact(); // keeps the bytes of a character split between two reads
+            }
+            addEntry(entries, entry);
+            return entries;
+        }
+    }
+
+    /**
+     * Splits the decoded characters into entries, then empties the buffer for the next chunk.
+     * @param chars the characters decoded from the current chunk
+     * @param entries the entries read so far
+     * @param entry the builder holding the current entry, which may continue into the next chunk
+     */
+    private static void splitEntries(CharBuffer chars, List<String> entries, StringBuilder entry)
+    {
+        chars.flip();
+        while (chars.hasRemaining())
+        {
+            char c = chars.get();
+            if (c == '\n' || c == '\r' || c == ',')
+            {
+                addEntry(entries, entry);
+            }
+            else if (c != BYTE_ORDER_MARK)
+            {
+                entry.append(c);
+            }
+        }
+        chars.clear();
+    }
+
+    /**
+     * Adds the entry held by the builder to the list unless it is empty or a comment, then resets the builder.
+     * @param entries the entries read so far
+     * @param entry the builder holding the current entry
+     */
+    private static void addEntry(List<String> entries, StringBuilder entry)
+    {
+        String trimmedEntry = entry.toString().trim();
+        entry.setLength(0);
+        if (!trimmedEntry.isEmpty() && trimmedEntry.charAt(0) != COMMENT)
+        {
+            entries.add(trimmedEntry);
+        }
+    }
+
+    /**
+     * Writes the entries of a filter list to a file, one per line. The entries are written to a temporary file first,
+     * so an existing file is only replaced once the write succeeds.
+     * @param path the file to write
+     * @param entries the entries of the filter list
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeFilterList(Path path, List<String> entries) throws IOException
+    {
+        Files.createDirectories(path.getParent());
+        Path temporaryPath = path.resolveSibling(path.getFileName() + TEMPORARY_FILE_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8))
+        {
+            for (String entry : entries)
+            {
+                writer.write(entry);
+                writer.newLine();
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
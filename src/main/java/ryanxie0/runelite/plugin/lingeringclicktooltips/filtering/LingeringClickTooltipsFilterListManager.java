@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import net.runelite.api.ChatMessageType;
+import net.runelite.api.Client;
+import net.runelite.client.RuneLite;
+import net.runelite.client.callback.ClientThread;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterMode.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringConstants.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringUtil.*;
+
+@Singleton
+public class LingeringClickTooltipsFilterListManager {
+
+    private static final long PERSIST_DELAY = 2000; // ms after the last edit before the lists are written to config
+
+    // longer filter lists are saved to a file, as config values are kept in memory and synced with the profile
+    private static final int MAXIMUM_CONFIG_CSV_LENGTH = 4096;
+
+    @Inject
+    private LingeringClickTooltipsConfig config;
+
+    @Inject
+    private Client client;
+
+    @Inject
+    private ClientThread clientThread;
+
+    @Inject
+    private ScheduledExecutorService executor;
+
+    // compiled only when the csv is changed by the user, edits made in game are applied in place
+    private static volatile LingeringClickTooltipsFilterList blacklist;
+    private static volatile LingeringClickTooltipsFilterList whitelist;
+    private static volatile LingeringClickTooltipsIdFilterList blacklistIds;
+    private static volatile LingeringClickTooltipsIdFilterList whitelistIds;
+
+    // guarded by this, the csv last written by this manager, so that its own writes are not compiled again
+    private static String persistedBlacklist;
+    private static String persistedWhitelist;
+    private static String persistedBlacklistIds;
+    private static String persistedWhitelistIds;
+
+    // guarded by this, the lists are edited and written to the config on the client thread, but saved to their files
+    // on the executor or the shutdown thread
+    private ScheduledFuture<?> pendingPersist;
+    private int persistGeneration; // bumped by every edit, so that a persist started for an earlier edit is skipped
+    private boolean isDirty; // whether the lists were edited since they were last written to the config
+
+    // held while saving the lists to their files, taken before this so a flush on shutdown is never overwritten
+    private final Object fileLock = new Object();
+
+    /**
+     * Compiles a filter list changed by the user. Synchronized with the persists written to the config on the client
+     * thread, as the config panel changes the lists on another thread. A persist started before the change is
+     * skipped and started again, so that it never writes the list from before the change over it.
+     * @param configKey the key of the changed config item
+     */
+    public synchronized void updateFromConfig(String configKey)
+    {
+        switch (configKey)
+        {
+            case BLACKLIST_CSV:
+                if (!config.blacklist().equals(persistedBlacklist))
+                {
+                    persistedBlacklist = config.blacklist();
+                    blacklist = config.blacklistSavedToFile() ? mergeFilterList(blacklist, persistedBlacklist) : compileFilterList(persistedBlacklist);
+                    restartPersist();
+                }
+                break;
+            case WHITELIST_CSV:
+                if (!config.whitelist().equals(persistedWhitelist))
+                {
+                    persistedWhitelist = config.whitelist();
+                    whitelist = config.whitelistSavedToFile() ? mergeFilterList(whitelist, persistedWhitelist) : compileFilterList(persistedWhitelist);
+                    restartPersist();
+                }
+                break;
+            case BLACKLIST_IDS_CSV:
+                if (!config.blacklistIds().equals(persistedBlacklistIds))
+                {
+                    persistedBlacklistIds = config.blacklistIds();
+                    blacklistIds = compileIdFilterList(persistedBlacklistIds);
+                    restartPersist();
+                }
+                break;
+            case WHITELIST_IDS_CSV:
+                if (!config.whitelistIds().equals(persistedWhitelistIds))
+                {
+                    persistedWhitelistIds = config.whitelistIds();
+                    whitelistIds = compileIdFilterList(persistedWhitelistIds);
+                    restartPersist();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Restarts a persist which may have copied the lists before the user changed one of them in the config.
+     */
+    private void restartPersist()
+    {
+        if (isDirty)
+        {
+            schedulePersist();
+        }
+    }
+
+    /**
+     * @param csvString the filter list as stored in the config
+     * @return the filter list compiled for matching clicks
+     */
+    private static LingeringClickTooltipsFilterList compileFilterList(String csvString)
+    {
+        return LingeringClickTooltipsFilterList.compile(csvToList(csvString));
+    }
+
+    /**
+     * @param filterMode the filter list to load
+     * @param csvString the filter list as stored in the config
+     * @param isSavedToFile whether the filter list was too long for the config and saved to its file instead
+     * @return the filter list compiled from the config and its file
+     */
+    private static LingeringClickTooltipsFilterList loadFilterList(LingeringClickTooltipsFilterMode filterMode, String csvString, boolean isSavedToFile)
+    {
+        if (!isSavedToFile)
+        {
+            return compileFilterList(csvString);
+        }
+        List<String> entries = new ArrayList<>();
+        try
+        {
+            entries.addAll(LingeringClickTooltipsFilterListFiles.readFilterList(getSavedFilterListPath(filterMode)));
+        }
+        catch (IOException e)
+        {
+            // the file was removed by hand, only the entries in the config remain
+        }
+        entries.addAll(csvToList(csvString));
+        return LingeringClickTooltipsFilterList.compile(entries);
+    }
+
+    /**
+     * Adds the entries typed into the config to a filter list which is saved to its file. They are moved from the
+     * config into the file at the next persist.
+     * @param filterList the filter list saved to its file
+     * @param csvString the entries typed into the config
+     * @return the filter list compiled with the entries of both
+     */
+    private LingeringClickTooltipsFilterList mergeFilterList(LingeringClickTooltipsFilterList filterList, String csvString)
+    {
+        List<String> entries = filterList.getEntries();
+        entries.addAll(csvToList(csvString));
+        schedulePersist();
+        return LingeringClickTooltipsFilterList.compile(entries);
+    }
+
+    /**
+     * @param csvString the id entries of the filter list as stored in the config
+     * @return the id entries of the filter list compiled for looking up clicks
+     */
+    private static LingeringClickTooltipsIdFilterList compileIdFilterList(String csvString)
+    {
+        return LingeringClickTooltipsIdFilterList.compile(csvToList(csvString));
+    }
+
+    /**
+     * @param idFilterList the id entries of a filter list
+     * @return the id entries of the filter list as stored in the config
+     */
+    private static String idFilterListToCsv(LingeringClickTooltipsIdFilterList idFilterList)
+    {
+        return listToCsv(idFilterList.getEntries());
+    }
+
+    /**
+     * Adds a click to the filter list, or removes it if it is already listed in either form. The change applies to
+     * the next click immediately, while writing the lists to the config is debounced, so a burst of edits is
+     * written once.
+     * @param filterMode the filter list to edit, must be BLACKLIST or WHITELIST
+     * @param text the tag-stripped text of the click
+     * @param clickKey the key of the click from its menu action and identifier
+     * @return true if the click was added, false if it was removed
+     */
+    public synchronized boolean toggleFilterListEntry(LingeringClickTooltipsFilterMode filterMode, String text, long clickKey)
+    {
+        boolean isAdded = filterMode == BLACKLIST ? toggleEntry(blacklist, blacklistIds, text, clickKey) : toggleEntry(whitelist, whitelistIds, text, clickKey);
+        schedulePersist();
+        return isAdded;
+    }
+
+    /**
+     * Adds the text and id entry of a click, or removes them if the click is listed in either form. Removing also
+     * removes the entries listed together with them, i.e. the id entries listed with the text and the text listed with
+     * the id entry, so that a click listed from another target with the same text or id is not left filtered.
+     * @param filterList the text entries of the filter list
+     * @param idFilterList the id entries of the filter list
+     * @param text the tag-stripped text of the click
+     * @param clickKey the key of the click from its menu action and identifier
+     * @return true if the click was added, false if it was removed
+     */
+    static boolean toggleEntry(LingeringClickTooltipsFilterList filterList, LingeringClickTooltipsIdFilterList idFilterList, String text, long clickKey)
+    {
+        if (!filterList.containsEntry(text) && !idFilterList.contains(clickKey))
+        {
+            filterList.add(text);
+            if (clickKey != NO_CLICK_KEY)
+            {
+                idFilterList.add(clickKey, text);
+            }
+            return true;
+        }
+
+        filterList.remove(text);
+        idFilterList.removeText(text);
+        String listedText = idFilterList.remove(clickKey);
+        if (listedText != null)
+        {
+            filterList.remove(listedText);
+            idFilterList.removeText(listedText);
+        }
+        return false;
+    }
+
+    /**
+     * @param filterMode the filter list to check, must be BLACKLIST or WHITELIST
+     * @param text the tag-stripped text of the click
+     * @param clickKey the key of the click from its menu action and identifier
+     * @return whether the click is an entry of the filter list in either form
+     */
+    public static boolean isListed(LingeringClickTooltipsFilterMode filterMode, String text, long clickKey)
+    {
+        if (filterMode == BLACKLIST)
+        {
+            return blacklist.containsEntry(text) || blacklistIds.contains(clickKey);
+        }
+        return whitelist.containsEntry(text) || whitelistIds.contains(clickKey);
+    }
+
+    /**
+     * Marks the lists as edited and restarts the persist delay. Once the delay passes without another edit, the lists
+     * are copied under the lock and saved to their files on the executor, so writing a long list never stalls the
+     * client thread. The config is then written on the client thread. A persist overtaken by another edit is skipped,
+     * so a burst of edits is persisted once.
+     */
+    private synchronized void schedulePersist()
+    {
+        isDirty = true;
+        if (pendingPersist != null)
+        {
+            pendingPersist.cancel(false);
+        }
+        final int generation = ++persistGeneration;
+        pendingPersist = executor.schedule(() -> persist(generation), PERSIST_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Saves the lists to their files on the executor, then writes them to the config on the client thread.
+     * @param generation the generation of the edit the persist was scheduled for
+     */
+    private void persist(int generation)
+    {
+        final PersistSnapshot snapshot;
+        synchronized (this)
+        {
+            if (generation != persistGeneration)
+            {
+                return;
+            }
+            pendingPersist = null;
+            snapshot = takeSnapshot();
+        }
+        if (snapshot == null)
+        {
+            return;
+        }
+
+        synchronized (fileLock)
+        {
+            synchronized (this)
+            {
+                if (generation != persistGeneration)
+                {
+                    return; // edited or flushed on shutdown while waiting for the lock
+                }
+            }
+            saveSnapshot(snapshot);
+        }
+
+        clientThread.invokeLater(() ->
+        {
+            if (writeSnapshot(generation, snapshot))
+            {
+                schedulePersist();
+            }
+        });
+    }
+
+    /**
+     * @return a copy of the lists to persist, null if they were not edited since they were last persisted
+     */
+    private synchronized PersistSnapshot takeSnapshot()
+    {
+        if (!isDirty || blacklist == null)
+        {
+            return null; // already persisted, possibly while shutting down
+        }
+        return new PersistSnapshot(blacklist.getEntries(), whitelist.getEntries(), idFilterListToCsv(blacklistIds), idFilterListToCsv(whitelistIds));
+    }
+
+    /**
+     * Saves the lists which are too long for the config to their files, must hold fileLock.
+     * @param snapshot the lists to save
+     */
+    private void saveSnapshot(PersistSnapshot snapshot)
+    {
+        snapshot.blacklistCsv = saveFilterList(BLACKLIST, snapshot.blacklistEntries);
+        snapshot.whitelistCsv = saveFilterList(WHITELIST, snapshot.whitelistEntries);
+    }
+
+    /**
+     * Writes the lists to the config. Config only fires a change for values that differ, and updateFromConfig skips
+     * compiling the values written here. A list which the user changed in the config since it was last persisted is
+     * not overwritten, updateFromConfig compiles the change instead.
+     * @param generation the generation of the edit the snapshot was taken for
+     * @param snapshot the lists saved to their files
+     * @return whether a list was changed by the user, so that the lists must be persisted again
+     */
+    private synchronized boolean writeSnapshot(int generation, PersistSnapshot snapshot)
+    {
+        if (generation != persistGeneration || blacklist == null)
+        {
+            return false; // a later edit persists the lists again, or they were flushed on shutdown
+        }
+        isDirty = false;
+
+        boolean isChangedByUser = false;
+        if (config.blacklist().equals(persistedBlacklist))
+        {
+            persistedBlacklist = snapshot.blacklistCsv != null ? snapshot.blacklistCsv : "";
+            config.setBlacklistSavedToFile(snapshot.blacklistCsv == null);
+            config.setBlacklist(persistedBlacklist);
+        }
+        else
+        {
+            isChangedByUser = true;
+        }
+        if (config.whitelist().equals(persistedWhitelist))
+        {
+            persistedWhitelist = snapshot.whitelistCsv != null ? snapshot.whitelistCsv : "";
+            config.setWhitelistSavedToFile(snapshot.whitelistCsv == null);
+            config.setWhitelist(persistedWhitelist);
+        }
+        else
+        {
+            isChangedByUser = true;
+        }
+        if (config.blacklistIds().equals(persistedBlacklistIds))
+        {
+            persistedBlacklistIds = snapshot.blacklistIdsCsv;
+            config.setBlacklistIds(persistedBlacklistIds);
+        }
+        else
+        {
+            isChangedByUser = true;
+        }
+        if (config.whitelistIds().equals(persistedWhitelistIds))
+        {
+            persistedWhitelistIds = snapshot.whitelistIdsCsv;
+            config.setWhitelistIds(persistedWhitelistIds);
+        }
+        else
+        {
+            isChangedByUser = true;
+        }
+        return isChangedByUser;
+    }
+
+    /**
+     * Saves a filter list which is too long for the config to its file, or removes the file once the list fits in the
+     * config again. If the file cannot be written, the list is kept in the config so it is never lost.
+     * @param filterMode the filter list to save
+     * @param entries the entries of the filter list
+     * @return the value of the filter list for the config, null if the list was saved to its file
+     */
+    private String saveFilterList(LingeringClickTooltipsFilterMode filterMode, List<String> entries)
+    {
+        Path path = getSavedFilterListPath(filterMode);
+        try
+        {
+            if (isCsvLongerThan(entries, MAXIMUM_CONFIG_CSV_LENGTH))
+            {
+                LingeringClickTooltipsFilterListFiles.writeFilterList(path, entries); // streamed, the csv is never built
+                return null;
+            }
+            Files.deleteIfExists(path);
+        }
+        catch (IOException e)
+        {
+            clientThread.invokeLater(() -> sendChatMessage("Could not save the " + filterMode + " to " + path + ": " + e.getMessage()));
+        }
+        return listToCsv(entries);
+    }
+
+    /**
+     * @param entries the entries of a filter list
+     * @param maximumLength the length of csv the config holds
+     * @return whether the csv of the entries, with a comma between entries, is longer than maximumLength, counted
+     * without building it and only until maximumLength is passed
+     */
+    private static boolean isCsvLongerThan(List<String> entries, int maximumLength)
+    {
+        int length = -1; // no comma before the first entry
+        for (String entry : entries)
+        {
+            length += entry.length() + 1;
+            if (length > maximumLength)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Handles the filter list file commands, which import a filter list from or export it to a text file in the
+     * RuneLite directory. Called on the client thread, the file is read or written on the executor.
+     * @param command the command typed by the user, without the leading ::
+     * @param arguments the filter list, then optionally the name of the file
+     */
+    public void executeCommand(String command, String[] arguments)
+    {
+        boolean isImport = command.equalsIgnoreCase(IMPORT_COMMAND);
+        if (!isImport && !command.equalsIgnoreCase(EXPORT_COMMAND))
+        {
+            return;
+        }
+
+        LingeringClickTooltipsFilterMode filterMode = null;
+        if (arguments.length > 0)
+        {
+            if (arguments[0].equalsIgnoreCase(BLACKLIST.toString()))
+            {
+                filterMode = BLACKLIST;
+            }
+            else if (arguments[0].equalsIgnoreCase(WHITELIST.toString()))
+            {
+                filterMode = WHITELIST;
+            }
+        }
+        if (filterMode == null)
+        {
+            sendChatMessage("Usage: ::" + command.toLowerCase() + " blacklist|whitelist [file]");
+            return;
+        }
+
+        Path path = getFilterListPath(filterMode, arguments.length > 1 ? arguments[1] : null);
+        if (path == null)
+        {
+            sendChatMessage("The file must be inside " + RuneLite.RUNELITE_DIR.toPath().resolve(FILTER_LISTS_DIRECTORY));
+        }
+        else if (isImport)
+        {
+            importFilterList(filterMode, path);
+        }
+        else
+        {
+            exportFilterList(filterMode, path);
+        }
+    }
+
+    /**
+     * @param filterMode the filter list of the file
+     * @param fileName the name of the file chosen by the user, null for the default name of the filter list
+     * @return the path of the file in the filter lists directory, null if fileName points outside of it
+     */
+    private static Path getFilterListPath(LingeringClickTooltipsFilterMode filterMode, String fileName)
+    {
+        Path directory = RuneLite.RUNELITE_DIR.toPath().resolve(FILTER_LISTS_DIRECTORY).normalize();
+        if (fileName == null)
+        {
+            fileName = filterMode.toString().toLowerCase() + FILTER_LIST_FILE_EXTENSION;
+        }
+        Path path = directory.resolve(fileName).normalize();
+        return path.startsWith(directory) && !path.equals(directory) ? path : null;
+    }
+
+    /**
+     * @param filterMode the filter list of the file
+     * @return the path of the file a filter list is saved to when it is too long for the config
+     */
+    private static Path getSavedFilterListPath(LingeringClickTooltipsFilterMode filterMode)
+    {
+        return getFilterListPath(filterMode, filterMode.toString().toLowerCase() + SAVED_FILTER_LIST_FILE_SUFFIX);
+    }
+
+    /**
+     * Streams the file into a newly compiled filter list off the client thread, then replaces the filter list with it
+     * and reports the load time. The id entries of the filter list are kept.
+     * @param filterMode the filter list to replace
+     * @param path the file to import
+     */
+    private void importFilterList(LingeringClickTooltipsFilterMode filterMode, Path path)
+    {
+        executor.execute(() ->
+        {
+            long startTime = System.nanoTime();
+            LingeringClickTooltipsFilterList filterList;
+            try
+            {
+                filterList = LingeringClickTooltipsFilterList.compile(LingeringClickTooltipsFilterListFiles.readFilterList(path));
+            }
+            catch (IOException e)
+            {
+                clientThread.invokeLater(() -> sendChatMessage("Could not import the " + filterMode + ": " + e.getMessage()));
+                return;
+            }
+            long loadTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+            clientThread.invokeLater(() ->
+            {
+                if (blacklist == null)
+                {
+                    return; // the plugin was shut down during the import
+                }
+                if (filterMode == BLACKLIST)
+                {
+                    blacklist = filterList;
+                }
+                else
+                {
+                    whitelist = filterList;
+                }
+                schedulePersist();
+                sendChatMessage("Imported " + filterList.size() + " entries into the " + filterMode + " in " + loadTime + " ms");
+            });
+        });
+    }
+
+    /**
+     * Copies the entries of the filter list on the client thread, then writes them to the file off the client thread.
+     * @param filterMode the filter list to export
+     * @param path the file to export to
+     */
+    private void exportFilterList(LingeringClickTooltipsFilterMode filterMode, Path path)
+    {
+        List<String> entries = (filterMode == BLACKLIST ? blacklist : whitelist).getEntries();
+        executor.execute(() ->
+        {
+            long startTime = System.nanoTime();
+            try
+            {
+                LingeringClickTooltipsFilterListFiles.writeFilterList(path, entries);
+            }
+            catch (IOException e)
+            {
+                clientThread.invokeLater(() -> sendChatMessage("Could not export the " + filterMode + ": " + e.getMessage()));
+                return;
+            }
+            long saveTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            clientThread.invokeLater(() -> sendChatMessage("Exported " + entries.size() + " entries of the " + filterMode + " to " + path + " in " + saveTime + " ms"));
+        });
+    }
+
+    /**
+     * @param message the message to show in the chatbox, must be called on the client thread
+     */
+    private void sendChatMessage(String message)
+    {
+        client.addChatMessage(ChatMessageType.GAMEMESSAGE, "", message, null);
+    }
+
+    public static boolean blacklistContains(String text)
+    {
+        return blacklist.contains(text);
+    }
+
+    public static boolean whitelistContains(String text)
+    {
+        return whitelist.contains(text);
+    }
+
+    public static boolean blacklistContainsId(long clickKey)
+    {
+        return blacklistIds.contains(clickKey);
+    }
+
+    public static boolean whitelistContainsId(long clickKey)
+    {
+        return whitelistIds.contains(clickKey);
+    }
+
+    public synchronized void initialize()
+    {
+        persistedBlacklist = config.blacklist();
+        persistedWhitelist = config.whitelist();
+        persistedBlacklistIds = config.blacklistIds();
+        persistedWhitelistIds = config.whitelistIds();
+        blacklist = loadFilterList(BLACKLIST, persistedBlacklist, config.blacklistSavedToFile());
+        whitelist = loadFilterList(WHITELIST, persistedWhitelist, config.whitelistSavedToFile());
+        blacklistIds = compileIdFilterList(persistedBlacklistIds);
+        whitelistIds = compileIdFilterList(persistedWhitelistIds);
+    }
+
+    public void destroy()
+    {
+        synchronized (fileLock)
+        {
+            synchronized (this)
+            {
+                if (pendingPersist != null)
+                {
+                    pendingPersist.cancel(false);
+                    pendingPersist = null;
+                }
+                final int generation = ++persistGeneration; // a persist already started is skipped
+                PersistSnapshot snapshot = takeSnapshot();
+                if (snapshot != null)
+                {
+                    // flushed before returning, so edits made just before shutting down are not lost
+                    saveSnapshot(snapshot);
+                    writeSnapshot(generation, snapshot);
+                }
+                blacklist = null;
+                whitelist = null;
+                blacklistIds = null;
+                whitelistIds = null;
+                persistedBlacklist = null;
+                persistedWhitelist = null;
+                persistedBlacklistIds = null;
+                persistedWhitelistIds = null;
+            }
+        }
+    }
+
+    /**
+     * The filter lists as of one persist, copied under the lock so they can be saved to their files off the client
+     * thread.
+     */
+    private static class PersistSnapshot {
+
+        private final List<String> blacklistEntries;
+        private final List<String> whitelistEntries;
+        private final String blacklistIdsCsv;
+        private final String whitelistIdsCsv;
+
+        // the values of the lists for the config once they are saved, null if a list was saved to its file
+        private String blacklistCsv;
+        private String whitelistCsv;
+
+        private PersistSnapshot(List<String> blacklistEntries, List<String> whitelistEntries, String blacklistIdsCsv, String whitelistIdsCsv)
+        {
+            this.blacklistEntries = blacklistEntries;
+            this.whitelistEntries = whitelistEntries;
+            this.blacklistIdsCsv = blacklistIdsCsv;
+            this.whitelistIdsCsv = whitelistIdsCsv;
+        }
+    }
+}
@@ -25,11 +25,10 @@
  */
 package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
 
-import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig;
-import java.util.LinkedList;
-import java.util.List;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsSettings;
 
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.color.LingeringClickTooltipsColorConstants.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterListManager.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterMode.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringUtil.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringConstants.*;
@@ -41,18 +40,19 @@ public class LingeringClickTooltipsFiltering {
      * @param tooltipText the tooltip text to check for processing
      * @param isHide whether the plugin is currently in hide mode, where tooltips do not show
      * @param isCtrlPressed whether the CTRL key is currently held down, may show tooltips normally during hide mode
-     * @param config the configuration settings for the plugin
+     * @param clickKey the key of the click from its menu action and identifier, see getClickKey
+     * @param settings the snapshot of the configuration settings for the plugin
      * @return whether the click should render a tooltip
      */
-    public static boolean shouldRenderTooltip(String tooltipText, boolean isHide, boolean isCtrlPressed, LingeringClickTooltipsConfig config)
+    public static boolean shouldRenderTooltip(String tooltipText, boolean isHide, boolean isCtrlPressed, long clickKey, LingeringClickTooltipsSettings settings)
     {
         String filterableText = removeTags(tooltipText); // filtering should never include tags
 
-        boolean isHideMode = isHideMode(isHide, isCtrlPressed, config.ctrlTogglesHide());
-        boolean isTrivialClick = isTrivialClick(filterableText, config);
-        boolean isFilteredByList = isFilteredByList(filterableText, config);
+        boolean isHideMode = isHideMode(isHide, isCtrlPressed, settings.isCtrlTogglesHide());
+        boolean isTrivialClick = isTrivialClick(filterableText, settings);
+        boolean isFilteredByList = isFilteredByList(filterableText, clickKey, settings);
         boolean isBlockedClickTooltip = isBlockedClickTooltip(filterableText);
-        boolean isHiddenBlockedClickTooltip = isBlockedClickTooltip && !config.showBlockedClicks();
+        boolean isHiddenBlockedClickTooltip = isBlockedClickTooltip && !settings.isShowBlockedClicks();
 
         return !isHideMode && !isTrivialClick && !(isFilteredByList && !isBlockedClickTooltip) && !isHiddenBlockedClickTooltip;
     }
@@ -70,16 +70,16 @@ public class LingeringClickTooltipsFiltering {
 
     /**
      * @param tooltipText the tooltip text to check for triviality
-     * @param config the configuration settings for the plugin
+     * @param settings the snapshot of the configuration settings for the plugin
      * @return whether tooltipText is a trivial click based on the current config (or a default trivial click)
      */
-    public static boolean isTrivialClick(String tooltipText, LingeringClickTooltipsConfig config)
+    public static boolean isTrivialClick(String tooltipText, LingeringClickTooltipsSettings settings)
     {
         if (defaultContains(tooltipText))
         {
             return true;
         }
-        else if (config.hideTrivialClicks() && !config.trackerMode())
+        else if (settings.isHideTrivialClicks() && !settings.isTrackerMode())
         {
             if (tooltipText.contains(WALK_HERE) && tooltipText.length() > WALK_HERE.length())
             {
@@ -99,20 +99,19 @@ public class LingeringClickTooltipsFiltering {
 
     /**
      * @param tooltipText the tooltip text to check for filtering
-     * @param config the configuration settings for the plugin
+     * @param clickKey the key of the click from its menu action and identifier, checked before tooltipText
+     * @param settings the snapshot of the configuration settings for the plugin
      * @return whether tooltipText is filtered based on the current filter mode
      */
-    public static boolean isFilteredByList(String tooltipText, LingeringClickTooltipsConfig config)
+    public static boolean isFilteredByList(String tooltipText, long clickKey, LingeringClickTooltipsSettings settings)
     {
-        if (config.filterMode() == BLACKLIST)
+        if (settings.getFilterMode() == BLACKLIST)
         {
-            List<String> blacklist = csvToList(config.blacklist());
-            return blacklist.contains(tooltipText);
+            return blacklistContainsId(clickKey) || blacklistContains(tooltipText);
         }
-        else if (config.filterMode() == WHITELIST)
+        else if (settings.getFilterMode() == WHITELIST)
         {
-            List<String> whitelist = csvToList(config.whitelist());
-            return !whitelist.contains(tooltipText);
+            return !whitelistContainsId(clickKey) && !whitelistContains(tooltipText);
         }
         else
         {
@@ -131,58 +130,41 @@ public class LingeringClickTooltipsFiltering {
     }
 
     /**
-     * Updates the appropriate filter list, then indicates the action by returning a String with keywords.
-     * @param config the configuration settings for the plugin
+     * Updates the appropriate filter list, then indicates the action by returning a String with keywords. Both the text
+     * and the id entry of the click are added or removed together, a click listed in either form is removed.
+     * @param filterListManager the manager which holds the filter lists and persists edits to them
+     * @param filterMode the current filter mode
      * @param tooltipText the last tooltip text detected by the plugin, including all trivial clicks
+     * @param clickKey the key of the last click from its menu action and identifier
      * @param isPeek whether the method was called from a peek action
      * @return tooltipText prefixed with the appropriate filter list action keywords
      */
-    public static String updateFilterLists(LingeringClickTooltipsConfig config, String tooltipText, boolean isPeek)
+    public static String updateFilterLists(
+        LingeringClickTooltipsFilterListManager filterListManager,
+        LingeringClickTooltipsFilterMode filterMode,
+        String tooltipText,
+        long clickKey,
+        boolean isPeek
+    )
     {
         String infoTooltipText = "";
         if (tooltipText == null || tooltipText.isEmpty())
         {
             return infoTooltipText;
         }
-        LingeringClickTooltipsFilterMode filterMode = config.filterMode();
-        String filterableText = removeTags(tooltipText);
-        if (filterMode == BLACKLIST)
+        if (filterMode == BLACKLIST || filterMode == WHITELIST)
         {
-            List<String> blacklist = new LinkedList<>(csvToList(config.blacklist()));
-            if (blacklist.contains(filterableText))
+            String filterableText = removeTags(tooltipText);
+            boolean isAdd;
+            if (isPeek) // peek actions do not commit changes to the filter lists
             {
-                blacklist.remove(filterableText);
-                infoTooltipText += BLACKLIST + REMOVE + tooltipText;
+                isAdd = !isListed(filterMode, filterableText, clickKey);
             }
             else
             {
-                blacklist.add(filterableText);
-                infoTooltipText += BLACKLIST + ADD + tooltipText;
-            }
-
-            if (!isPeek) // peek actions do not commit changes to config
-            {
-                config.setBlacklist(listToCsv(blacklist));
-            }
-        }
-        else if (filterMode == WHITELIST)
-        {
-            List<String> whitelist = new LinkedList<>(csvToList(config.whitelist()));
-            if (whitelist.contains(filterableText))
-            {
-                whitelist.remove(filterableText);
-                infoTooltipText += WHITELIST + REMOVE + tooltipText;
-            }
-            else
-            {
-                whitelist.add(filterableText);
-                infoTooltipText += WHITELIST + ADD + tooltipText;
-            }
-
-            if (!isPeek) // peek actions do not commit changes to config
-            {
-                config.setWhitelist(listToCsv(whitelist));
+                isAdd = filterListManager.toggleFilterListEntry(filterMode, filterableText, clickKey);
             }
+            infoTooltipText += filterMode + (isAdd ? ADD : REMOVE) + tooltipText;
         }
         else if (filterMode == NONE)
         {
@@ -40,6 +40,27 @@ public class LingeringClickTooltipsFilteringConstants {
     public static final String HIDE_PANELS_GROUP = "hidePanelsGroup";
     public static final String WHITELIST_CSV = "whitelist";
     public static final String BLACKLIST_CSV = "blacklist";
+    public static final String WHITELIST_IDS_CSV = "whitelistIds";
+    public static final String BLACKLIST_IDS_CSV = "blacklistIds";
+    public static final String WHITELIST_SAVED_TO_FILE = "whitelistSavedToFile";
+    public static final String BLACKLIST_SAVED_TO_FILE = "blacklistSavedToFile";
+
+    // separates the menu action id from the identifier in an id entry, e.g. 9:3080
+    public static final String ID_ENTRY_SEPARATOR = ":";
+    // separates the identifier from the text the click was listed with, e.g. 9:3080=Attack Goblin
+    public static final String ID_ENTRY_TEXT_SEPARATOR = "=";
+
+    // the key of a click whose identifier does not stably identify its target, such clicks are only listed by text
+    public static final long NO_CLICK_KEY = -1L;
+
+    // filter list file commands, e.g. ::lctimport blacklist or ::lctexport whitelist bosses.txt
+    public static final String IMPORT_COMMAND = "lctimport";
+    public static final String EXPORT_COMMAND = "lctexport";
+    public static final String FILTER_LISTS_DIRECTORY = "lingering-click-tooltips";
+    public static final String FILTER_LIST_FILE_EXTENSION = ".txt";
+
+    // filter lists too long for the config are saved to a file instead, e.g. blacklist.saved.txt
+    public static final String SAVED_FILTER_LIST_FILE_SUFFIX = ".saved" + FILTER_LIST_FILE_EXTENSION;
 
     // default trivial clicks
     public static final String CANCEL = "Cancel";
@@ -31,6 +31,7 @@ import java.util.List;
 
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.color.LingeringClickTooltipsColorConstants.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilterMode.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringConstants.*;
 
 public class LingeringClickTooltipsFilteringUtil {
 
@@ -79,6 +80,55 @@ public class LingeringClickTooltipsFilteringUtil {
         return Text.removeTags(text);
     }
 
+    /**
+     * @param menuActionId the id of the menu action of the click
+     * @param identifier the identifier of the click, such as an item or object id
+     * @return the key of the click, with the menu action id in the high 32 bits and the identifier in the low 32 bits
+     */
+    public static long getClickKey(int menuActionId, int identifier)
+    {
+        return ((long) menuActionId << 32) | (identifier & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param clickKey the key of a click
+     * @param text the tag-stripped text the click was listed with, null if it is not known
+     * @return the id entry of the click as stored in the config, e.g. 9:3080=Attack Goblin
+     */
+    public static String clickKeyToEntry(long clickKey, String text)
+    {
+        String entry = (int) (clickKey >>> 32) + ID_ENTRY_SEPARATOR + (int) clickKey;
+        return text != null ? entry + ID_ENTRY_TEXT_SEPARATOR + text : entry;
+    }
+
+    /**
+     * @param entry an id entry as stored in the config
+     * @return the key of the click described by the entry
+     * @throws NumberFormatException if the entry is malformed
+     */
+    public static long entryToClickKey(String entry)
+    {
+        int separator = entry.indexOf(ID_ENTRY_SEPARATOR);
+        if (separator < 0)
+        {
+            throw new NumberFormatException(entry);
+        }
+        int textSeparator = entry.indexOf(ID_ENTRY_TEXT_SEPARATOR, separator);
+        int menuActionId = Integer.parseInt(entry.substring(0, separator).trim());
+        int identifier = Integer.parseInt(entry.substring(separator + 1, textSeparator < 0 ? entry.length() : textSeparator).trim());
+        return getClickKey(menuActionId, identifier);
+    }
+
+    /**
+     * @param entry an id entry as stored in the config
+     * @return the text the click was listed with, null for entries listed before texts were recorded
+     */
+    public static String entryToText(String entry)
+    {
+        int textSeparator = entry.indexOf(ID_ENTRY_TEXT_SEPARATOR, Math.max(entry.indexOf(ID_ENTRY_SEPARATOR), 0));
+        return textSeparator < 0 ? null : entry.substring(textSeparator + 1);
+    }
+
     /**
      * @param csvString the string containing csv
      * @return csv converted to a list
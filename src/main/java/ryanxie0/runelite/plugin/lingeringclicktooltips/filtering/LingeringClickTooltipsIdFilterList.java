@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringUtil.*;
+
+/**
+ * The id entries of a filter list, the keys of the clicks listed with SHIFT. Clicks are looked up in a primitive set.
+ * The text each click was listed with is kept beside it, so that removing a text also removes the id entries listed
+ * with it.
+ */
+public class LingeringClickTooltipsIdFilterList {
+
+    private final LingeringClickTooltipsLongHashSet clickKeys;
+    private final Map<Long, String> texts; // id entries listed before texts were recorded have none
+
+    private LingeringClickTooltipsIdFilterList(int expectedSize)
+    {
+        clickKeys = new LingeringClickTooltipsLongHashSet(expectedSize);
+        texts = new HashMap<>(expectedSize * 2);
+    }
+
+    /**
+     * @param clickKey the key of a click
+     * @return whether the click is listed
+     */
+    public boolean contains(long clickKey)
+    {
+        return clickKeys.contains(clickKey);
+    }
+
+    /**
+     * @param clickKey the key of the click to add
+     * @param text the tag-stripped text of the click
+     */
+    public void add(long clickKey, String text)
+    {
+        clickKeys.add(clickKey);
+        texts.put(clickKey, text);
+    }
+
+    /**
+     * @param clickKey the key of the click to remove
+     * @return the text the click was listed with, null if it was not listed or listed without one
+     */
+    public String remove(long clickKey)
+    {
+        clickKeys.remove(clickKey);
+        return texts.remove(clickKey);
+    }
+
+    /**
+     * @param text the tag-stripped text of a click
+     * @return whether any click was listed with text
+     */
+    public boolean removeText(String text)
+    {
+        boolean isRemoved = false;
+        for (Iterator<Map.Entry<Long, String>> iterator = texts.entrySet().iterator(); iterator.hasNext(); )
+        {
+            Map.Entry<Long, String> entry = iterator.next();
+            if (entry.getValue().equals(text))
+            {
+                clickKeys.remove(entry.getKey());
+                iterator.remove();
+                isRemoved = true;
+            }
+        }
+        return isRemoved;
+    }
+
+    /**
+     * @return the id entries of the list as stored in the config
+     */
+    public List<String> getEntries()
+    {
+        long[] keys = clickKeys.toArray();
+        List<String> entries = new ArrayList<>(keys.length);
+        for (long clickKey : keys)
+        {
+            entries.add(clickKeyToEntry(clickKey, texts.get(clickKey)));
+        }
+        return entries;
+    }
+
+    /**
+     * @return the number of clicks in the list
+     */
+    public int size()
+    {
+        return clickKeys.size();
+    }
+
+    /**
+     * @param entries the id entries of the filter list as stored in the config
+     * @return the compiled id filter list, malformed entries are skipped
+     */
+    public static LingeringClickTooltipsIdFilterList compile(List<String> entries)
+    {
+        LingeringClickTooltipsIdFilterList idFilterList = new LingeringClickTooltipsIdFilterList(entries.size());
+        for (String entry : entries)
+        {
+            try
+            {
+                long clickKey = entryToClickKey(entry);
+                idFilterList.clickKeys.add(clickKey);
+                String text = entryToText(entry);
+                if (text != null)
+                {
+                    idFilterList.texts.put(clickKey, text);
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                // the list is hidden from the config panel, but may still be edited by hand
+            }
+        }
+        return idFilterList;
+    }
+}
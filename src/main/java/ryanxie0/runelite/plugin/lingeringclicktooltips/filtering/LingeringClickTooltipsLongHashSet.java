@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash set of primitive longs, used for filter list entries keyed by menu action and identifier.
+ * Lookups are a single probe in the common case and never box or hash a String.
+ */
+public class LingeringClickTooltipsLongHashSet {
+
+    private static final int MINIMUM_CAPACITY = 16; // must be a power of two
+    private static final long FREE = 0L; // marks an unused slot, the key 0 itself is tracked by hasFreeKey
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean hasFreeKey;
+
+    public LingeringClickTooltipsLongHashSet()
+    {
+        this(MINIMUM_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize the number of keys the set should hold without resizing
+     */
+    public LingeringClickTooltipsLongHashSet(int expectedSize)
+    {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedSize * 2)
+        {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return whether the set contains key
+     */
+    public boolean contains(long key)
+    {
+        if (key == FREE)
+        {
+            return hasFreeKey;
+        }
+        int slot = slotOf(key);
+        while (keys[slot] != FREE)
+        {
+            if (keys[slot] == key)
+            {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @param key the key to add
+     * @return whether the set did not already contain key
+     */
+    public boolean add(long key)
+    {
+        if (key == FREE)
+        {
+            boolean isAdded = !hasFreeKey;
+            hasFreeKey = true;
+            return isAdded;
+        }
+        int slot = slotOf(key);
+        while (keys[slot] != FREE)
+        {
+            if (keys[slot] == key)
+            {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        if (++size * 2 > keys.length)
+        {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Removes a key, shifting back the keys which probed past it so that lookups never need tombstones.
+     * @param key the key to remove
+     * @return whether the set contained key
+     */
+    public boolean remove(long key)
+    {
+        if (key == FREE)
+        {
+            boolean isRemoved = hasFreeKey;
+            hasFreeKey = false;
+            return isRemoved;
+        }
+        int slot = slotOf(key);
+        while (keys[slot] != key)
+        {
+            if (keys[slot] == FREE)
+            {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int gap = slot;
+        slot = (slot + 1) & mask;
+        while (keys[slot] != FREE)
+        {
+            int home = slotOf(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - gap) & mask))
+            {   // the key at slot may move back into the gap without passing its home slot
+                keys[gap] = keys[slot];
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the number of keys in the set
+     */
+    public int size()
+    {
+        return size + (hasFreeKey ? 1 : 0);
+    }
+
+    /**
+     * @return the keys of the set in no particular order
+     */
+    public long[] toArray()
+    {
+        long[] array = new long[size()];
+        int index = 0;
+        if (hasFreeKey)
+        {
+            array[index++] = FREE;
+        }
+        for (long key : keys)
+        {
+            if (key != FREE)
+            {
+                array[index++] = key;
+            }
+        }
+        return array;
+    }
+
+    public void clear()
+    {
+        Arrays.fill(keys, FREE);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    private void resize(int capacity)
+    {
+        long[] oldKeys = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (long key : oldKeys)
+        {
+            if (key != FREE)
+            {
+                int slot = slotOf(key);
+                while (keys[slot] != FREE)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * @param key the key to place
+     * @return the home slot of key, the bits are mixed as the high half of a key is a small menu action id
+     */
+    private int slotOf(long key)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
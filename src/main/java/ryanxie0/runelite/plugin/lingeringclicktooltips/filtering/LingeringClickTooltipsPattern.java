@@ -0,0 +1,662 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A glob or regex entry of a filter list, parsed into a tree which LingeringClickTooltipsPatternAutomaton compiles
+ * together with the other entries of the list. Only regex constructs which a finite automaton can match are supported:
+ * literals, escapes, character classes, groups, alternation and greedy or lazy quantifiers, which all match the same
+ * texts when the whole text must match. Backreferences, lookarounds, possessive quantifiers, flags and anchors other
+ * than a leading ^ or trailing $ are not, so that no entry ever needs backtracking.
+ */
+public class LingeringClickTooltipsPattern {
+
+    // a regex entry is kept as a literal if it would compile to more states, e.g. through a large bounded repetition
+    static final int MAXIMUM_REGEX_STATES = 1024;
+
+    private static final int UNBOUNDED = -1;
+    private static final int MAXIMUM_REPETITION_DIGITS = 4;
+
+    private static final int[] ANY_CHAR = {0, Character.MAX_VALUE};
+    // the . of a regex does not match line terminators
+    private static final int[] ANY_CHAR_BUT_LINE_TERMINATOR = {0, '\n' - 1, '\n' + 1, '\r' - 1, '\r' + 1, '\u0084', '\u0086', '\u2027', '\u202A', Character.MAX_VALUE};
+    private static final int[] DIGIT_CHARS = {'0', '9'};
+    private static final int[] WORD_CHARS = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    private static final int[] SPACE_CHARS = {'\t', '\r', ' ', ' '};
+
+    private final Node root;
+
+    private LingeringClickTooltipsPattern(Node root)
+    {
+        this.root = root;
+    }
+
+    /**
+     * @param glob an entry where * matches any run of characters and everything else is matched exactly
+     * @return the parsed glob
+     */
+    public static LingeringClickTooltipsPattern glob(String glob)
+    {
+        List<Node> nodes = new ArrayList<>(glob.length());
+        for (int i = 0; i < glob.length(); i++)
+        {
+            final char c = glob.charAt(i);
+            nodes.add(c == '*' ? new Repetition(new CharSet(ANY_CHAR), 0, UNBOUNDED) : CharSet.of(c));
+        }
+        return new LingeringClickTooltipsPattern(new Sequence(nodes));
+    }
+
+    /**
+     * @param regex the regex of a regex entry, without the delimiters
+     * @return the parsed regex, null if it is invalid, uses an unsupported construct or exceeds MAXIMUM_REGEX_STATES
+     */
+    public static LingeringClickTooltipsPattern regex(String regex)
+    {
+        try
+        {
+            Node root = new RegexParser(regex).parse();
+            return root.countStates() <= MAXIMUM_REGEX_STATES ? new LingeringClickTooltipsPattern(root) : null;
+        }
+        catch (IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @param nfa the automaton to add the states of the pattern to
+     * @param next the state to continue from once the pattern is matched
+     * @return the first state of the pattern
+     */
+    int compile(LingeringClickTooltipsPatternAutomaton.Nfa nfa, int next)
+    {
+        return root.compile(nfa, next);
+    }
+
+    private static abstract class Node {
+
+        /**
+         * @param nfa the automaton to add the states of the node to
+         * @param next the state to continue from once the node is matched
+         * @return the first state of the node
+         */
+        abstract int compile(LingeringClickTooltipsPatternAutomaton.Nfa nfa, int next);
+
+        /**
+         * @return the number of states compile adds, saturated so repetitions never overflow
+         */
+        abstract int countStates();
+    }
+
+    private static class CharSet extends Node {
+
+        private final int[] ranges; // sorted and disjoint pairs of the first and last char of each range
+
+        private CharSet(int[] ranges)
+        {
+            this.ranges = ranges;
+        }
+
+        private static CharSet of(char c)
+        {
+            return new CharSet(new int[]{c, c});
+        }
+
+        @Override
+        int compile(LingeringClickTooltipsPatternAutomaton.Nfa nfa, int next)
+        {
+            return nfa.addCharState(ranges, next);
+        }
+
+        @Override
+        int countStates()
+        {
+            return 1;
+        }
+    }
+
+    private static class Sequence extends Node {
+
+        private final List<Node> nodes;
+
+        private Sequence(List<Node> nodes)
+        {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int compile(LingeringClickTooltipsPatternAutomaton.Nfa nfa, int next)
+        {
+            int state = next;
+            for (int i = nodes.size() - 1; i >= 0; i--)
+            {
+                state = nodes.get(i).compile(nfa, state);
+            }
+            return state;
+        }
+
+        @Override
+        int countStates()
+        {
+            int count = 0;
+            for (Node node : nodes)
+            {
+                count = saturatedAdd(count, node.countStates());
+            }
+            return count;
+        }
+    }
+
+    private static class Alternation extends Node {
+
+        private final List<Node> nodes;
+
+        private Alternation(List<Node> nodes)
+        {
+            this.nodes = nodes;
+        }
+
+        @Override
+        int compile(LingeringClickTooltipsPatternAutomaton.Nfa nfa, int next)
+        {
+            int[] alternatives = new int[nodes.size()];
+            for (int i = 0; i < alternatives.length; i++)
+            {
+                alternatives[i] = nodes.get(i).compile(nfa, next);
+            }
+            return nfa.addSplitState(alternatives);
+        }
+
+        @Override
+        int countStates()
+        {
+            int count = 1;
+            for (Node node : nodes)
+            {
+                count = saturatedAdd(count, node.countStates());
+            }
+            return count;
+        }
+    }
+
+    private static class Repetition extends Node {
+
+        private final Node node;
+        private final int min;
+        private final int max; // UNBOUNDED for * and +
+
+        private Repetition(Node node, int min, int max)
+        {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        int compile(LingeringClickTooltipsPatternAutomaton.Nfa nfa, int next)
+        {
+            int state;
+            if (max == UNBOUNDED)
+            {
+                // the loop either matches the node again or continues, the split is filled in once the node exists
+                state = nfa.addSplitState();
+                nfa.setSplitState(state, node.compile(nfa, state), next);
+            }
+            else
+            {
+                state = next;
+                for (int i = min; i < max; i++)
+                {
+                    state = nfa.addSplitState(node.compile(nfa, state), next);
+                }
+            }
+            for (int i = 0; i < min; i++)
+            {
+                state = node.compile(nfa, state);
+            }
+            return state;
+        }
+
+        @Override
+        int countStates()
+        {
+            final int nodeStates = node.countStates();
+            final int optionalStates = max == UNBOUNDED ? saturatedAdd(nodeStates, 1) : saturatedMultiply(max - min, saturatedAdd(nodeStates, 1));
+            return saturatedAdd(saturatedMultiply(min, nodeStates), optionalStates);
+        }
+    }
+
+    private static int saturatedAdd(int a, int b)
+    {
+        return (int) Math.min((long) a + b, Integer.MAX_VALUE);
+    }
+
+    private static int saturatedMultiply(int a, int b)
+    {
+        return (int) Math.min((long) a * b, Integer.MAX_VALUE);
+    }
+
+    /**
+     * A recursive descent parser for the supported subset of java.util.regex syntax. Throws IllegalArgumentException
+     * for anything outside of it.
+     */
+    private static class RegexParser {
+
+        private final String regex;
+        private int position;
+
+        private RegexParser(String regex)
+        {
+            this.regex = regex;
+        }
+
+        private Node parse()
+        {
+            Node root = parseAlternation();
+            if (position < regex.length())
+            {
+                throw new IllegalArgumentException("Unmatched ) at " + position);
+            }
+            return root;
+        }
+
+        private Node parseAlternation()
+        {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseSequence());
+            while (position < regex.length() && regex.charAt(position) == '|')
+            {
+                position++;
+                alternatives.add(parseSequence());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+        }
+
+        private Node parseSequence()
+        {
+            List<Node> nodes = new ArrayList<>();
+            while (position < regex.length() && regex.charAt(position) != '|' && regex.charAt(position) != ')')
+            {
+                nodes.add(parseQuantifier(parseAtom()));
+            }
+            return nodes.size() == 1 ? nodes.get(0) : new Sequence(nodes);
+        }
+
+        private Node parseAtom()
+        {
+            final char c = regex.charAt(position++);
+            switch (c)
+            {
+                case '(':
+                    if (regex.startsWith("?:", position))
+                    {
+                        position += 2;
+                    }
+                    else if (regex.startsWith("?", position))
+                    {
+                        throw new IllegalArgumentException("Unsupported group at " + position);
+                    }
+                    Node group = parseAlternation();
+                    if (position >= regex.length())
+                    {
+                        throw new IllegalArgumentException("Unclosed group");
+                    }
+                    position++;
+                    return group;
+                case '[':
+                    return new CharSet(parseCharClass());
+                case '.':
+                    return new CharSet(ANY_CHAR_BUT_LINE_TERMINATOR);
+                case '^':
+                    // the whole text is always matched, so only an anchor at the very start or end means nothing
+                    if (position != 1)
+                    {
+                        throw new IllegalArgumentException("Unsupported ^ at " + position);
+                    }
+                    return new Sequence(new ArrayList<>());
+                case '$':
+                    if (position != regex.length())
+                    {
+                        throw new IllegalArgumentException("Unsupported $ at " + position);
+                    }
+                    return new Sequence(new ArrayList<>());
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new IllegalArgumentException("Dangling quantifier at " + position);
+                case '\\':
+                    if (regex.startsWith("Q", position))
+                    {
+                        return parseQuotation();
+                    }
+                    return new CharSet(parseEscape());
+                default:
+                    return CharSet.of(c);
+            }
+        }
+
+        /**
+         * @return the text between \Q and \E, or the end of the regex, matched exactly
+         */
+        private Node parseQuotation()
+        {
+            final int start = position + 1;
+            int end = regex.indexOf("\\E", start);
+            if (end < 0)
+            {
+                end = regex.length();
+            }
+            List<Node> nodes = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++)
+            {
+                nodes.add(CharSet.of(regex.charAt(i)));
+            }
+            position = Math.min(end + 2, regex.length());
+            return new Sequence(nodes);
+        }
+
+        private Node parseQuantifier(Node node)
+        {
+            if (position >= regex.length())
+            {
+                return node;
+            }
+            final int min;
+            final int max;
+            switch (regex.charAt(position))
+            {
+                case '*':
+                    min = 0;
+                    max = UNBOUNDED;
+                    position++;
+                    break;
+                case '+':
+                    min = 1;
+                    max = UNBOUNDED;
+                    position++;
+                    break;
+                case '?':
+                    min = 0;
+                    max = 1;
+                    position++;
+                    break;
+                case '{':
+                    position++;
+                    min = parseRepetitionCount();
+                    if (regex.startsWith(",}", position))
+                    {
+                        max = UNBOUNDED;
+                        position++;
+                    }
+                    else if (regex.startsWith(",", position))
+                    {
+                        position++;
+                        max = parseRepetitionCount();
+                    }
+                    else
+                    {
+                        max = min;
+                    }
+                    if (!regex.startsWith("}", position) || max != UNBOUNDED && max < min)
+                    {
+                        throw new IllegalArgumentException("Illegal repetition at " + position);
+                    }
+                    position++;
+                    break;
+                default:
+                    return node;
+            }
+            // a lazy quantifier matches the same texts as a greedy one, a possessive one may match fewer
+            if (regex.startsWith("?", position))
+            {
+                position++;
+            }
+            else if (regex.startsWith("+", position))
+            {
+                throw new IllegalArgumentException("Unsupported possessive quantifier at " + position);
+            }
+            return new Repetition(node, min, max);
+        }
+
+        private int parseRepetitionCount()
+        {
+            final int start = position;
+            while (position < regex.length() && position - start < MAXIMUM_REPETITION_DIGITS && isDigit(regex.charAt(position)))
+            {
+                position++;
+            }
+            if (position == start || position < regex.length() && isDigit(regex.charAt(position)))
+            {
+                throw new IllegalArgumentException("Illegal repetition at " + position);
+            }
+            return Integer.parseInt(regex.substring(start, position));
+        }
+
+        /**
+         * @return the ranges of a character class such as [a-z_], parsed from after its opening bracket
+         */
+        private int[] parseCharClass()
+        {
+            final boolean isNegated = regex.startsWith("^", position);
+            if (isNegated)
+            {
+                position++;
+            }
+            List<int[]> sets = new ArrayList<>();
+            boolean isFirst = true;
+            while (true)
+            {
+                if (position >= regex.length())
+                {
+                    throw new IllegalArgumentException("Unclosed character class");
+                }
+                final char c = regex.charAt(position);
+                if (c == ']' && !isFirst)
+                {
+                    position++;
+                    break;
+                }
+                if (c == '[' || c == ']' || regex.startsWith("&&", position))
+                {
+                    throw new IllegalArgumentException("Unsupported character class at " + position);
+                }
+                isFirst = false;
+
+                int[] set = parseClassMember();
+                if (regex.startsWith("-", position) && position + 1 < regex.length() && regex.charAt(position + 1) != ']')
+                {
+                    position++;
+                    int[] last = parseClassMember();
+                    if (!isSingleChar(set) || !isSingleChar(last) || last[0] < set[0])
+                    {
+                        throw new IllegalArgumentException("Illegal character range at " + position);
+                    }
+                    set = new int[]{set[0], last[0]};
+                }
+                sets.add(set);
+            }
+            int[] ranges = union(sets);
+            return isNegated ? complement(ranges) : ranges;
+        }
+
+        private int[] parseClassMember()
+        {
+            final char c = regex.charAt(position++);
+            if (c != '\\')
+            {
+                return new int[]{c, c};
+            }
+            if (regex.startsWith("Q", position))
+            {
+                throw new IllegalArgumentException("Unsupported \\Q in character class at " + position);
+            }
+            return parseEscape();
+        }
+
+        /**
+         * @return the ranges matched by the escape after a backslash
+         */
+        private int[] parseEscape()
+        {
+            if (position >= regex.length())
+            {
+                throw new IllegalArgumentException("Unexpected end of regex");
+            }
+            final char c = regex.charAt(position++);
+            switch (c)
+            {
+                case 'd':
+                    return DIGIT_CHARS;
+                case 'D':
+                    return complement(DIGIT_CHARS);
+                case 'w':
+                    return WORD_CHARS;
+                case 'W':
+                    return complement(WORD_CHARS);
+                case 's':
+                    return SPACE_CHARS;
+                case 'S':
+                    return complement(SPACE_CHARS);
+                case 't':
+                    return new int[]{'\t', '\t'};
+                case 'n':
+                    return new int[]{'\n', '\n'};
+                case 'r':
+                    return new int[]{'\r', '\r'};
+                case 'f':
+                    return new int[]{'\f', '\f'};
+                case 'a':
+                    return new int[]{'\u0007', '\u0007'};
+                case 'e':
+                    return new int[]{'\u001B', '\u001B'};
+                case 'x':
+                    return parseHexEscape(2);
+                case 'u':
+                    return parseHexEscape(4);
+                default:
+                    // other letters and digits are backreferences, boundaries and classes a finite automaton cannot match
+                    if (isDigit(c) || c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')
+                    {
+                        throw new IllegalArgumentException("Unsupported escape \\" + c);
+                    }
+                    return new int[]{c, c};
+            }
+        }
+
+        private int[] parseHexEscape(int digits)
+        {
+            if (position + digits > regex.length())
+            {
+                throw new IllegalArgumentException("Illegal hexadecimal escape at " + position);
+            }
+            int c = 0;
+            for (int i = 0; i < digits; i++)
+            {
+                final int digit = Character.digit(regex.charAt(position++), 16);
+                if (digit < 0)
+                {
+                    throw new IllegalArgumentException("Illegal hexadecimal escape at " + position);
+                }
+                c = c * 16 + digit;
+            }
+            return new int[]{c, c};
+        }
+    }
+
+    private static boolean isDigit(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSingleChar(int[] ranges)
+    {
+        return ranges.length == 2 && ranges[0] == ranges[1];
+    }
+
+    /**
+     * @param sets the ranges of each set
+     * @return the sorted and disjoint ranges of the chars in any of the sets
+     */
+    private static int[] union(List<int[]> sets)
+    {
+        List<int[]> ranges = new ArrayList<>();
+        for (int[] set : sets)
+        {
+            for (int i = 0; i < set.length; i += 2)
+            {
+                ranges.add(new int[]{set[i], set[i + 1]});
+            }
+        }
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        int[] union = new int[ranges.size() * 2];
+        int length = 0;
+        for (int[] range : ranges)
+        {
+            if (length > 0 && range[0] <= union[length - 1] + 1)
+            {
+                union[length - 1] = Math.max(union[length - 1], range[1]);
+            }
+            else
+            {
+                union[length++] = range[0];
+                union[length++] = range[1];
+            }
+        }
+        return Arrays.copyOf(union, length);
+    }
+
+    /**
+     * @param ranges sorted and disjoint ranges
+     * @return the sorted and disjoint ranges of the chars not in ranges
+     */
+    private static int[] complement(int[] ranges)
+    {
+        int[] complement = new int[ranges.length + 2];
+        int length = 0;
+        int start = 0;
+        for (int i = 0; i < ranges.length; i += 2)
+        {
+            if (ranges[i] > start)
+            {
+                complement[length++] = start;
+                complement[length++] = ranges[i] - 1;
+            }
+            start = ranges[i + 1] + 1;
+        }
+        if (start <= Character.MAX_VALUE)
+        {
+            complement[length++] = start;
+            complement[length++] = Character.MAX_VALUE;
+        }
+        return Arrays.copyOf(complement, length);
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The glob and regex entries of a filter list compiled into a single automaton. The entries are joined into one
+ * nondeterministic automaton, which is turned into a deterministic one lazily as texts are matched: each deterministic
+ * state is a set of nondeterministic states, and each transition between them is computed once, then cached in a table.
+ * Matching a text is then one table lookup per char, however many entries there are, and never backtracks. The cache is
+ * cleared once it outgrows its budget, so memory stays bounded whatever the entries are.
+ * Not thread safe, texts are matched on the client thread.
+ */
+public class LingeringClickTooltipsPatternAutomaton {
+
+    // ints held by the cached states before the cache is cleared, the states of many unanchored globs are large sets
+    static final int MAXIMUM_CACHE_SIZE = 1 << 20;
+
+    private static final int MATCH = 0; // the nfa state reached once any pattern is matched
+    private static final int DEAD = 0; // the dfa state without nfa states, no text matches from it
+    private static final int UNKNOWN = -1; // a transition which was not computed yet
+    private static final int BLOCK_SIZE = 256;
+
+    private final Nfa nfa;
+    private final int nfaStart;
+    private final int maximumCacheSize;
+
+    private final int[] classStarts; // the first char of each class of chars which no char set tells apart
+    private final char[][] classBlocks; // the class of every char, in blocks of BLOCK_SIZE chars which are shared when uniform
+
+    private final Map<StateSet, Integer> dfaStateIds = new HashMap<>();
+    private final List<int[]> dfaStates = new ArrayList<>(); // the sorted nfa states of each dfa state
+    private int[][] transitions = new int[16][];
+    private boolean[] isAccepting = new boolean[16];
+    private int startState;
+    private int cacheSize;
+
+    // scratch space for following the split states from a set of nfa states
+    private final int[] visited;
+    private final int[] stack;
+    private final int[] reached;
+    private int visitGeneration;
+    private int reachedCount;
+
+    private LingeringClickTooltipsPatternAutomaton(Nfa nfa, int nfaStart, int maximumCacheSize)
+    {
+        this.nfa = nfa;
+        this.nfaStart = nfaStart;
+        this.maximumCacheSize = maximumCacheSize;
+
+        TreeSet<Integer> starts = new TreeSet<>();
+        starts.add(0);
+        for (int state = 0; state < nfa.size; state++)
+        {
+            final int[] ranges = nfa.ranges[state];
+            for (int i = 0; ranges != null && i < ranges.length; i += 2)
+            {
+                starts.add(ranges[i]);
+                if (ranges[i + 1] < Character.MAX_VALUE)
+                {
+                    starts.add(ranges[i + 1] + 1);
+                }
+            }
+        }
+        classStarts = new int[starts.size()];
+        int index = 0;
+        for (int start : starts)
+        {
+            classStarts[index++] = start;
+        }
+
+        classBlocks = new char[(Character.MAX_VALUE + 1) / BLOCK_SIZE][];
+        Map<Character, char[]> uniformBlocks = new HashMap<>();
+        int charClass = 0;
+        for (int block = 0; block < classBlocks.length; block++)
+        {
+            final char[] classes = new char[BLOCK_SIZE];
+            for (int i = 0; i < BLOCK_SIZE; i++)
+            {
+                final int c = block * BLOCK_SIZE + i;
+                while (charClass + 1 < classStarts.length && classStarts[charClass + 1] <= c)
+                {
+                    charClass++;
+                }
+                classes[i] = (char) charClass;
+            }
+            classBlocks[block] = classes[0] == classes[BLOCK_SIZE - 1] ? uniformBlocks.computeIfAbsent(classes[0], key -> classes) : classes;
+        }
+
+        visited = new int[nfa.size];
+        stack = new int[nfa.size];
+        reached = new int[nfa.size];
+        clearCache();
+    }
+
+    /**
+     * @param patterns the glob and regex entries of a filter list
+     * @return the automaton matching a text if any of the patterns matches the whole of it
+     */
+    public static LingeringClickTooltipsPatternAutomaton compile(Collection<LingeringClickTooltipsPattern> patterns)
+    {
+        return compile(patterns, MAXIMUM_CACHE_SIZE);
+    }
+
+    /**
+     * @param patterns the glob and regex entries of a filter list
+     * @param maximumCacheSize the ints held by the cached states before the cache is cleared
+     * @return the automaton matching a text if any of the patterns matches the whole of it
+     */
+    static LingeringClickTooltipsPatternAutomaton compile(Collection<LingeringClickTooltipsPattern> patterns, int maximumCacheSize)
+    {
+        Nfa nfa = new Nfa();
+        int[] patternStarts = new int[patterns.size()];
+        int index = 0;
+        for (LingeringClickTooltipsPattern pattern : patterns)
+        {
+            patternStarts[index++] = pattern.compile(nfa, MATCH);
+        }
+        return new LingeringClickTooltipsPatternAutomaton(nfa, nfa.addSplitState(patternStarts), maximumCacheSize);
+    }
+
+    /**
+     * @param text the text to match
+     * @return whether any of the patterns matches the whole of text
+     */
+    public boolean matches(String text)
+    {
+        int state = startState;
+        for (int i = 0; i < text.length(); i++)
+        {
+            final char c = text.charAt(i);
+            final int charClass = classBlocks[c / BLOCK_SIZE][c % BLOCK_SIZE];
+            int next = transitions[state][charClass];
+            if (next == UNKNOWN)
+            {
+                next = computeTransition(state, charClass);
+            }
+            if (next == DEAD)
+            {
+                return false;
+            }
+            state = next;
+        }
+        return isAccepting[state];
+    }
+
+    /**
+     * @return the number of states in the cache, for tests
+     */
+    int getCachedStateCount()
+    {
+        return dfaStates.size();
+    }
+
+    /**
+     * Follows every nfa state of a dfa state which accepts the class of chars, then caches the resulting dfa state as
+     * the transition. If the cache is full it is cleared first, keeping only the start state and the current state.
+     * @param state the dfa state to leave
+     * @param charClass the class of the char read
+     * @return the dfa state entered
+     */
+    private int computeTransition(int state, int charClass)
+    {
+        final int[] nfaStates = dfaStates.get(state);
+        final int c = classStarts[charClass];
+        beginVisit();
+        for (int nfaState : nfaStates)
+        {
+            final int[] ranges = nfa.ranges[nfaState];
+            if (ranges != null && containsChar(ranges, c))
+            {
+                visit(nfa.next[nfaState]);
+            }
+        }
+        final int[] nextNfaStates = endVisit();
+
+        Integer next = dfaStateIds.get(new StateSet(nextNfaStates));
+        if (next == null)
+        {
+            if (cacheSize >= maximumCacheSize)
+            {
+                clearCache();
+                state = getDfaState(nfaStates);
+            }
+            next = getDfaState(nextNfaStates);
+        }
+        transitions[state][charClass] = next;
+        return next;
+    }
+
+    private void clearCache()
+    {
+        dfaStateIds.clear();
+        dfaStates.clear();
+        cacheSize = 0;
+        final int deadState = getDfaState(new int[0]);
+        Arrays.fill(transitions[deadState], DEAD);
+        beginVisit();
+        visit(nfaStart);
+        startState = getDfaState(endVisit());
+    }
+
+    /**
+     * @param nfaStates the sorted nfa states of a dfa state
+     * @return the cached dfa state, added to the cache if it was not cached yet
+     */
+    private int getDfaState(int[] nfaStates)
+    {
+        final StateSet stateSet = new StateSet(nfaStates);
+        Integer state = dfaStateIds.get(stateSet);
+        if (state != null)
+        {
+            return state;
+        }
+
+        state = dfaStates.size();
+        if (state == transitions.length)
+        {
+            transitions = Arrays.copyOf(transitions, state * 2);
+            isAccepting = Arrays.copyOf(isAccepting, state * 2);
+        }
+        transitions[state] = new int[classStarts.length];
+        Arrays.fill(transitions[state], UNKNOWN);
+        isAccepting[state] = nfaStates.length > 0 && nfaStates[0] == MATCH;
+        dfaStates.add(nfaStates);
+        dfaStateIds.put(stateSet, state);
+        cacheSize += nfaStates.length + classStarts.length;
+        return state;
+    }
+
+    private void beginVisit()
+    {
+        if (++visitGeneration == Integer.MAX_VALUE)
+        {
+            Arrays.fill(visited, 0);
+            visitGeneration = 1;
+        }
+        reachedCount = 0;
+    }
+
+    /**
+     * Adds an nfa state to the states reached, following split states to the char states and match state after them.
+     * @param nfaState the state to add
+     */
+    private void visit(int nfaState)
+    {
+        if (visited[nfaState] == visitGeneration)
+        {
+            return;
+        }
+        visited[nfaState] = visitGeneration;
+        int stackSize = 0;
+        stack[stackSize++] = nfaState;
+        while (stackSize > 0)
+        {
+            final int state = stack[--stackSize];
+            final int[] splits = nfa.splits[state];
+            if (splits == null)
+            {
+                reached[reachedCount++] = state;
+                continue;
+            }
+            for (int split : splits)
+            {
+                if (visited[split] != visitGeneration)
+                {
+                    visited[split] = visitGeneration;
+                    stack[stackSize++] = split;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the sorted states reached since beginVisit
+     */
+    private int[] endVisit()
+    {
+        final int[] states = Arrays.copyOf(reached, reachedCount);
+        Arrays.sort(states);
+        return states;
+    }
+
+    /**
+     * @param ranges sorted and disjoint pairs of the first and last char of each range
+     * @param c the char to look up
+     * @return whether c is in any of the ranges
+     */
+    private static boolean containsChar(int[] ranges, int c)
+    {
+        for (int i = 0; i < ranges.length && ranges[i] <= c; i += 2)
+        {
+            if (c <= ranges[i + 1])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The nondeterministic automaton the patterns are compiled into. A state is either a char state, which reads a char
+     * in its ranges and moves to its next state, a split state, which moves to all of its splits without reading a
+     * char, or the match state.
+     */
+    static class Nfa {
+
+        private int[][] ranges = new int[64][]; // null for split states and the match state
+        private int[] next = new int[64];
+        private int[][] splits = new int[64][]; // null for char states and the match state
+        private int size;
+
+        private Nfa()
+        {
+            size = 1; // the match state
+        }
+
+        /**
+         * @param charRanges sorted and disjoint pairs of the first and last char of each range the state reads
+         * @param nextState the state to move to after reading a char
+         * @return the new state
+         */
+        int addCharState(int[] charRanges, int nextState)
+        {
+            final int state = addState();
+            ranges[state] = charRanges;
+            next[state] = nextState;
+            return state;
+        }
+
+        /**
+         * @param splitStates the states to move to without reading a char, may be set later through setSplitState
+         * @return the new state
+         */
+        int addSplitState(int... splitStates)
+        {
+            final int state = addState();
+            splits[state] = splitStates;
+            return state;
+        }
+
+        /**
+         * @param state a split state
+         * @param splitStates the states to move to without reading a char
+         */
+        void setSplitState(int state, int... splitStates)
+        {
+            splits[state] = splitStates;
+        }
+
+        private int addState()
+        {
+            if (size == next.length)
+            {
+                ranges = Arrays.copyOf(ranges, size * 2);
+                next = Arrays.copyOf(next, size * 2);
+                splits = Arrays.copyOf(splits, size * 2);
+            }
+            return size++;
+        }
+    }
+
+    /**
+     * The nfa states of a dfa state as a key of the cache.
+     */
+    private static class StateSet {
+
+        private final int[] states;
+        private final int hashCode;
+
+        private StateSet(int[] states)
+        {
+            this.states = states;
+            this.hashCode = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return o instanceof StateSet && Arrays.equals(states, ((StateSet) o).states);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
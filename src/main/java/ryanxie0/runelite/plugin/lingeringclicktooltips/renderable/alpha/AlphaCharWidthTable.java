@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Advance widths of the characters RuneScape fonts contain, looked up once per font. Text is measured by summing
+ * advances from the table, which avoids the substrings and layout work of FontMetrics.stringWidth.
+ */
+public class AlphaCharWidthTable
+{
+	private static final int TABLE_SIZE = 256; // Latin-1, anything beyond falls back to the font metrics
+
+	private static final Map<Font, AlphaCharWidthTable> tables = new HashMap<>();
+
+	private final FontMetrics metrics;
+	private final int[] advances = new int[TABLE_SIZE];
+
+	private AlphaCharWidthTable(FontMetrics metrics)
+	{
+		this.metrics = metrics;
+		for (char c = 0; c < TABLE_SIZE; c++)
+		{
+			advances[c] = metrics.charWidth(c);
+		}
+	}
+
+	/**
+	 * @param metrics the metrics of the font to measure with
+	 * @return the width table of the font, built on first use
+	 */
+	public static AlphaCharWidthTable forMetrics(FontMetrics metrics)
+	{
+		AlphaCharWidthTable table = tables.get(metrics.getFont());
+		if (table == null)
+		{
+			table = new AlphaCharWidthTable(metrics);
+			tables.put(metrics.getFont(), table);
+		}
+		return table;
+	}
+
+	/**
+	 * Drops all width tables, called when the overlay fonts change.
+	 */
+	public static void invalidate()
+	{
+		tables.clear();
+	}
+
+	/**
+	 * @param text the text to measure, must not contain tags
+	 * @return the advance width of text
+	 */
+	public int stringWidth(String text)
+	{
+		return stringWidth(text, 0, text.length());
+	}
+
+	/**
+	 * @param text the text containing the range to measure
+	 * @param begin the index of the first character to measure, inclusive
+	 * @param end the index of the last character to measure, exclusive
+	 * @return the advance width of the range
+	 */
+	public int stringWidth(String text, int begin, int end)
+	{
+		int width = 0;
+		for (int i = begin; i < end; i++)
+		{
+			final char c = text.charAt(i);
+			width += c < TABLE_SIZE ? advances[c] : metrics.charWidth(c);
+		}
+		return width;
+	}
+}
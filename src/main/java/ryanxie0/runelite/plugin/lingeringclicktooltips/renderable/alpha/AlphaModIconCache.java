@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import net.runelite.api.IndexedSprite;
+
+/**
+ * Mod icons wrapped as images, cached by icon id. The pixels of each IndexedSprite back the image directly through
+ * an IndexColorModel built from its palette, so an icon is drawn with a single drawImage call.
+ */
+public class AlphaModIconCache
+{
+	private static final int TRANSPARENT_INDEX = 0;
+	private static final int MAX_PALETTE_SIZE = 256;
+
+	private IndexedSprite[] modIcons;
+	private BufferedImage[] modIconImages;
+
+	/**
+	 * Invalidates the cached images if the client has replaced its mod icons. Cheap enough to call every frame.
+	 * @param modIcons the mod icons from the client, may be null
+	 */
+	public void update(IndexedSprite[] modIcons)
+	{
+		if (modIcons != this.modIcons)
+		{
+			this.modIcons = modIcons;
+			modIconImages = modIcons != null ? new BufferedImage[modIcons.length] : null;
+		}
+	}
+
+	/**
+	 * @param iconId the id of the mod icon, as found in img tags
+	 * @return the image of the mod icon, null if there is no such icon
+	 */
+	BufferedImage getModIcon(int iconId)
+	{
+		if (modIconImages == null || iconId < 0 || iconId >= modIconImages.length || modIcons[iconId] == null)
+		{
+			return null;
+		}
+
+		if (modIconImages[iconId] == null)
+		{
+			modIconImages[iconId] = wrapModIcon(modIcons[iconId]);
+		}
+		return modIconImages[iconId];
+	}
+
+	public void clear()
+	{
+		modIcons = null;
+		modIconImages = null;
+	}
+
+	/**
+	 * Wraps the pixels of an IndexedSprite without copying them. Palette index 0 is transparent.
+	 * @param modIcon the mod icon to wrap
+	 * @return an image backed by the pixels of modIcon
+	 */
+	private static BufferedImage wrapModIcon(IndexedSprite modIcon)
+	{
+		final int[] palette = modIcon.getPalette();
+		final byte[] pixels = modIcon.getPixels();
+		final int width = modIcon.getWidth();
+		final int height = modIcon.getHeight();
+
+		final IndexColorModel colorModel = new IndexColorModel(8, Math.min(palette.length, MAX_PALETTE_SIZE), palette, 0,
+			false, TRANSPARENT_INDEX, DataBuffer.TYPE_BYTE);
+		final WritableRaster raster = Raster.createInterleavedRaster(new DataBufferByte(pixels, pixels.length),
+			width, height, width, 1, new int[]{0}, null);
+		return new BufferedImage(colorModel, raster, false, null);
+	}
+}
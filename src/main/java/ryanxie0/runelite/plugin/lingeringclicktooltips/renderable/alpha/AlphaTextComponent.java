@@ -29,83 +29,70 @@ import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Point;
-import java.util.regex.Pattern;
+import lombok.AccessLevel;
 import lombok.Setter;
 import net.runelite.client.ui.overlay.RenderableEntity;
-import net.runelite.client.util.Text;
 
 @Setter
 public class AlphaTextComponent implements RenderableEntity
 {
-	private static final String COL_TAG_REGEX = "(<col=([0-9a-fA-F]){2,6}>)";
-	private static final Pattern COL_TAG_PATTERN_W_LOOKAHEAD = Pattern.compile("(?=" + COL_TAG_REGEX + ")");
-
 	private String text;
 	private Point position = new Point();
 	private Color color = Color.WHITE;
 	private boolean outline;
-	private double alphaModifier = 1.0;
+	private AlphaTextEffect effect; // shadow/outline are drawn with drawString when null
+
+	@Setter(AccessLevel.NONE)
+	private final Dimension size = new Dimension(); // reused as the return value of render
 
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
 		final FontMetrics fontMetrics = graphics.getFontMetrics();
-		final Color shadowColor = AlphaUtil.getAlphaModdedColor(Color.BLACK, alphaModifier);
 
-		if (COL_TAG_PATTERN_W_LOOKAHEAD.matcher(text).find())
+		if (effect != null)
 		{
-			final String[] parts = COL_TAG_PATTERN_W_LOOKAHEAD.split(text);
-			int x = position.x;
-
-			for (String textSplitOnCol : parts)
-			{
-				final String textWithoutCol = Text.removeTags(textSplitOnCol);
-				final String colColor = textSplitOnCol.substring(textSplitOnCol.indexOf("=") + 1, textSplitOnCol.indexOf(">"));
-
-				graphics.setColor(shadowColor);
-
-				if (outline)
-				{
-					graphics.drawString(textWithoutCol, x, position.y + 1);
-					graphics.drawString(textWithoutCol, x, position.y - 1);
-					graphics.drawString(textWithoutCol, x + 1, position.y);
-					graphics.drawString(textWithoutCol, x - 1, position.y);
-				}
-				else
-				{
-					// shadow
-					graphics.drawString(textWithoutCol, x + 1, position.y + 1);
-				}
+			renderEffect(graphics);
+			size.setSize(AlphaCharWidthTable.forMetrics(fontMetrics).stringWidth(text), fontMetrics.getHeight());
+			return size;
+		}
 
-				// actual text
-				graphics.setColor(AlphaUtil.getAlphaModdedColor(Color.decode("#" + colColor), alphaModifier));
-				graphics.drawString(textWithoutCol, x, position.y);
+		graphics.setColor(Color.BLACK);
 
-				x += fontMetrics.stringWidth(textWithoutCol);
-			}
+		if (outline)
+		{
+			graphics.drawString(text, position.x, position.y + 1);
+			graphics.drawString(text, position.x, position.y - 1);
+			graphics.drawString(text, position.x + 1, position.y);
+			graphics.drawString(text, position.x - 1, position.y);
 		}
 		else
 		{
-			graphics.setColor(shadowColor);
+			// shadow
+			graphics.drawString(text, position.x + 1, position.y + 1);
+		}
 
-			if (outline)
-			{
-				graphics.drawString(text, position.x, position.y + 1);
-				graphics.drawString(text, position.x, position.y - 1);
-				graphics.drawString(text, position.x + 1, position.y);
-				graphics.drawString(text, position.x - 1, position.y);
-			}
-			else
-			{
-				// shadow
-				graphics.drawString(text, position.x + 1, position.y + 1);
-			}
+		// actual text
+		graphics.setColor(color);
+		graphics.drawString(text, position.x, position.y);
 
-			// actual text
-			graphics.setColor(AlphaUtil.getAlphaModdedColor(color, alphaModifier));
-			graphics.drawString(text, position.x, position.y);
-		}
+		size.setSize(AlphaCharWidthTable.forMetrics(fontMetrics).stringWidth(text), fontMetrics.getHeight());
+		return size;
+	}
+
+	/**
+	 * Fills the cached glyph outlines, one call for the shadow or outline and one for the actual text.
+	 */
+	private void renderEffect(Graphics2D graphics)
+	{
+		graphics.translate(position.x, position.y);
+
+		graphics.setColor(Color.BLACK);
+		graphics.fill(effect.getEffect());
+
+		graphics.setColor(color);
+		graphics.fill(effect.getText());
 
-		return new Dimension(fontMetrics.stringWidth(text), fontMetrics.getHeight());
+		graphics.translate(-position.x, -position.y);
 	}
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import lombok.Value;
+
+/**
+ * Glyph outlines of a text run, relative to its baseline origin. The shadow, or the four passes of the outline, are
+ * merged into a single effect shape so that each is filled with one call instead of one drawString per pass.
+ */
+@Value
+public class AlphaTextEffect
+{
+	Shape text;
+	Shape effect;
+
+	/**
+	 * @param font the font the text is rendered with
+	 * @param fontRenderContext the context the text is rendered in
+	 * @param text the text of the run, must not contain tags
+	 * @param outline whether the effect is an outline, otherwise a shadow
+	 * @return the glyph outlines of text along with its shadow or outline
+	 */
+	public static AlphaTextEffect create(Font font, FontRenderContext fontRenderContext, String text, boolean outline)
+	{
+		final Shape textShape = font.createGlyphVector(fontRenderContext, text).getOutline();
+
+		final Shape effectShape;
+		if (outline)
+		{
+			final Area outlineArea = new Area();
+			outlineArea.add(translate(textShape, 0, 1));
+			outlineArea.add(translate(textShape, 0, -1));
+			outlineArea.add(translate(textShape, 1, 0));
+			outlineArea.add(translate(textShape, -1, 0));
+			effectShape = outlineArea;
+		}
+		else
+		{
+			effectShape = AffineTransform.getTranslateInstance(1, 1).createTransformedShape(textShape);
+		}
+
+		return new AlphaTextEffect(textShape, effectShape);
+	}
+
+	private static Area translate(Shape shape, int dx, int dy)
+	{
+		return new Area(AffineTransform.getTranslateInstance(dx, dy).createTransformedShape(shape));
+	}
+}
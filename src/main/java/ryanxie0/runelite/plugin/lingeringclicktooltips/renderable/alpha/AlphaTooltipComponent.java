@@ -24,16 +24,19 @@
  */
 package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
 
-import com.google.common.annotations.VisibleForTesting;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.regex.Pattern;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Setter;
-import net.runelite.api.IndexedSprite;
 import net.runelite.client.ui.overlay.components.BackgroundComponent;
 import net.runelite.client.ui.overlay.components.ComponentConstants;
 import net.runelite.client.ui.overlay.components.LayoutableRenderableEntity;
@@ -41,197 +44,186 @@ import net.runelite.client.ui.overlay.components.LayoutableRenderableEntity;
 @Setter
 public class AlphaTooltipComponent implements LayoutableRenderableEntity
 {
-	private static final Pattern BR = Pattern.compile("</br>");
 	private static final int OFFSET = 4;
-	private static final int MOD_ICON_WIDTH = 13; // they are generally 13px wide
-	private static final Color TRANSPARENT_COLOR = new Color(0, 0, 0, 0);
 
-	private String text;
+	@Getter(AccessLevel.PACKAGE)
+	private AlphaTooltipLayout layout;
 	private Color backgroundColor = ComponentConstants.STANDARD_BACKGROUND_COLOR;
+	@Getter(AccessLevel.PACKAGE)
 	private Point position = new Point();
-	private IndexedSprite[] modIcons;
+	private AlphaModIconCache modIconCache;
 	private double alphaModifier = 1.0;
+	private boolean outline;
+	private AlphaTooltipSpriteCache spriteCache;
+	private AlphaRenderPool renderPool;
+
+	@Setter(AccessLevel.NONE)
+	private AlphaTooltipSpriteCache.Key spriteKey;
+
+	@Setter(AccessLevel.NONE)
+	private final Dimension size = new Dimension(); // reused as the return value of render
 
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
-		// Tooltip size
-		final FontMetrics metrics = graphics.getFontMetrics();
-		final int textDescent = metrics.getDescent();
-		final int textHeight = metrics.getHeight();
-		int tooltipWidth = 0;
-		int tooltipHeight = 0;
-		String[] lines = BR.split(text);
+		final BufferedImage sprite = spriteCache != null && spriteCache.isEnabled() ? getSprite(graphics) : null;
+		if (alphaModifier <= 0.0)
+		{
+			return sprite != null ? getSpriteSize(sprite) : measure(graphics.getFontMetrics());
+		}
+
+		// fade is applied once to the whole tooltip, which is drawn at its base colors
+		final Composite composite = AlphaUtil.applyAlphaModifier(graphics, alphaModifier);
+		final Dimension dimension;
+		if (sprite != null)
+		{
+			graphics.drawImage(sprite, position.x, position.y, null);
+			dimension = getSpriteSize(sprite);
+		}
+		else
+		{	// caching disabled or too large to fit within the cache budget
+			dimension = renderTooltip(graphics, position.x, position.y);
+		}
+		graphics.setComposite(composite);
+		return dimension;
+	}
 
-		// Calculate tooltip size
-		for (String line : lines)
+	/**
+	 * Obtains the rasterized tooltip from the sprite cache, rasterizing it at full opacity on a miss.
+	 * @param graphics engine used to render, supplies the font and rendering hints
+	 * @return the rasterized tooltip, null if it could not be cached
+	 */
+	private BufferedImage getSprite(Graphics2D graphics)
+	{
+		final Font font = graphics.getFont();
+		if (spriteKey == null || !spriteKey.matches(layout.getText(), backgroundColor, font, outline))
 		{
-			int textWidth = calculateTextWidth(metrics, line);
+			spriteKey = AlphaTooltipSpriteCache.createKey(layout.getText(), backgroundColor, font, outline);
+		}
 
-			if (textWidth > tooltipWidth)
+		BufferedImage sprite = spriteCache.get(spriteKey);
+		if (sprite == null)
+		{
+			final Dimension tooltipSize = calculateTooltipSize(graphics.getFontMetrics());
+			sprite = new BufferedImage(tooltipSize.width, tooltipSize.height, BufferedImage.TYPE_INT_ARGB);
+			final Graphics2D spriteGraphics = sprite.createGraphics();
+			spriteGraphics.setRenderingHints(graphics.getRenderingHints());
+			spriteGraphics.setFont(font);
+			renderTooltip(spriteGraphics, 0, 0);
+			spriteGraphics.dispose();
+
+			if (!spriteCache.put(spriteKey, sprite))
 			{
-				tooltipWidth = textWidth;
+				return null;
 			}
-
-			tooltipHeight += textHeight;
 		}
+		return sprite;
+	}
 
-		// Tooltip position
-		int x = position.x;
-		int y = position.y;
+	/**
+	 * Computes the size of the tooltip without drawing anything. The layout only measures its runs again when the
+	 * font changes, so repeated calls are cheap.
+	 * @param metrics the metrics of the font the tooltip is rendered with
+	 * @return the dimensions of the tooltip, including its background padding
+	 */
+	public Dimension measure(FontMetrics metrics)
+	{
+		return calculateTooltipSize(metrics);
+	}
+
+	private Dimension getSpriteSize(BufferedImage sprite)
+	{
+		size.setSize(sprite.getWidth(), sprite.getHeight());
+		return size;
+	}
+
+	/**
+	 * @param metrics the metrics of the font the tooltip is rendered with
+	 * @return the dimensions of the tooltip, including its background padding
+	 */
+	private Dimension calculateTooltipSize(FontMetrics metrics)
+	{
+		final Dimension textSize = layout.measure(metrics);
+		size.setSize(textSize.width + OFFSET * 2, textSize.height + OFFSET * 2);
+		return size;
+	}
+
+	private Dimension renderTooltip(Graphics2D graphics, int x, int y)
+	{
+		// Tooltip size
+		final FontMetrics metrics = graphics.getFontMetrics();
+		final int textDescent = metrics.getDescent();
+		final int textHeight = metrics.getHeight();
+		final Dimension tooltipSize = calculateTooltipSize(metrics);
+
+		if (renderPool == null)
+		{
+			renderPool = new AlphaRenderPool();
+		}
 
 		// Render tooltip - background
-		final Rectangle tooltipBackground = new Rectangle(x, y,
-			tooltipWidth + OFFSET * 2, tooltipHeight + OFFSET * 2);
-		final BackgroundComponent backgroundComponent = new BackgroundComponent();
-		backgroundComponent.setBackgroundColor(AlphaUtil.getAlphaModdedColor(backgroundColor, alphaModifier));
+		final Rectangle tooltipBackground = renderPool.getBackgroundRectangle();
+		tooltipBackground.setBounds(x, y, tooltipSize.width, tooltipSize.height);
+		final BackgroundComponent backgroundComponent = renderPool.getBackgroundComponent();
+		backgroundComponent.setBackgroundColor(backgroundColor);
 		backgroundComponent.setRectangle(tooltipBackground);
 		backgroundComponent.render(graphics);
 		graphics.setColor(Color.WHITE);
 
+		// glyph outlines are filled as shapes, which must follow the text antialiasing setting
+		final Object antialiasing = graphics.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+			isTextAntialiased(graphics) ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+
 		// Render tooltip - text - line by line
-		int textX = x + OFFSET;
-		int textY = y + OFFSET;
-		int lineX;
-		final Color defaultColor = AlphaUtil.getAlphaModdedColor(Color.WHITE, alphaModifier);
-		Color nextColor = defaultColor;
-		for (int i = 0; i < lines.length; i++)
+		final AlphaTextComponent textComponent = renderPool.getTextComponent();
+		final Point textPosition = renderPool.getTextPosition();
+		textComponent.setOutline(outline);
+		textComponent.setPosition(textPosition);
+		final int textX = x + OFFSET;
+		final int textY = y + OFFSET;
+		for (int i = 0; i < layout.getLineCount(); i++)
 		{
-			lineX = textX;
-			final String line = lines[i];
-			char[] chars = line.toCharArray();
-
-			int begin = 0;
-			boolean inTag = false;
-			for (int j = 0; j < chars.length; j++)
+			int lineX = textX;
+			for (int j = layout.getLineStart(i); j < layout.getLineEnd(i); j++)
 			{
-				if (chars[j] == '<')
+				final AlphaTooltipLayout.Run run = layout.getRun(j);
+				if (run.isIcon())
 				{
-					AlphaTextComponent textComponent = new AlphaTextComponent();
-					textComponent.setColor(nextColor);
-					textComponent.setAlphaModifier(alphaModifier);
-					String text = line.substring(begin, j);
-					textComponent.setText(text);
-					textComponent.setPosition(new Point(lineX, textY + (i + 1) * textHeight - textDescent));
-					textComponent.render(graphics);
-
-					lineX += metrics.stringWidth(text);
-
-					begin = j;
-					inTag = true;
-				}
-				else if (chars[j] == '>' && inTag)
-				{
-					String subLine = line.substring(begin + 1, j);
-
-					if (subLine.startsWith("col="))
-					{
-						String argument = subLine.substring(4);
-						nextColor = AlphaUtil.getAlphaModdedColor(Color.decode("#" + argument), alphaModifier);
-					}
-					else if (subLine.equals("/col"))
-					{
-						nextColor = defaultColor;
-					}
-					else if (subLine.startsWith("img="))
-					{
-						if (modIcons != null)
-						{
-							String argument = subLine.substring(4);
-							int iconId = Integer.parseInt(argument);
-							IndexedSprite modIcon = modIcons[iconId];
-							renderModIcon(graphics, lineX, textY + i * textHeight - textDescent, modIcon);
-							lineX += modIcon.getWidth();
-						}
-					}
-					else
+					final BufferedImage modIcon = modIconCache != null ? modIconCache.getModIcon(run.getIconId()) : null;
+					if (modIcon != null)
 					{
-						AlphaTextComponent textComponent = new AlphaTextComponent();
-						textComponent.setColor(nextColor);
-						textComponent.setAlphaModifier(alphaModifier);
-						String text = line.substring(begin, j + 1);
-						textComponent.setText(text);
-						textComponent.setPosition(new Point(lineX, textY + (i + 1) * textHeight - textDescent));
-						textComponent.render(graphics);
-
-						lineX += metrics.stringWidth(text);
+						graphics.drawImage(modIcon, lineX, textY + i * textHeight - textDescent, null);
+						lineX += modIcon.getWidth();
 					}
+				}
+				else
+				{
+					textComponent.setColor(run.getColor());
+					textComponent.setText(run.getText());
+					textComponent.setEffect(layout.getRunEffect(j, metrics, outline));
+					textPosition.setLocation(lineX, textY + (i + 1) * textHeight - textDescent);
+					textComponent.render(graphics);
 
-					begin = j + 1;
-					inTag = false;
+					lineX += layout.getRunWidth(j);
 				}
 			}
-
-			// Draw trailing text (after last tag)
-			final AlphaTextComponent textComponent = new AlphaTextComponent();
-			textComponent.setColor(nextColor);
-			textComponent.setAlphaModifier(alphaModifier);
-			textComponent.setText(line.substring(begin));
-			textComponent.setPosition(new Point(lineX, textY + (i + 1) * textHeight - textDescent));
-			textComponent.render(graphics);
 		}
 
-		return new Dimension(tooltipWidth + OFFSET * 2, tooltipHeight + OFFSET * 2);
-	}
-
-	@VisibleForTesting
-	static int calculateTextWidth(FontMetrics metrics, String line)
-	{
-		char[] chars = line.toCharArray();
-		int textWidth = 0;
-
-		int begin = 0;
-		boolean inTag = false;
-		for (int j = 0; j < chars.length; j++)
+		if (antialiasing != null)
 		{
-			if (chars[j] == '<')
-			{
-				textWidth += metrics.stringWidth(line.substring(begin, j));
-
-				begin = j;
-				inTag = true;
-			}
-			else if (chars[j] == '>' && inTag)
-			{
-				String subLine = line.substring(begin + 1, j);
-
-				if (subLine.startsWith("img="))
-				{
-					textWidth += MOD_ICON_WIDTH;
-				}
-				else if (!subLine.startsWith("col=") && !subLine.startsWith("/col"))
-				{
-					textWidth += metrics.stringWidth(line.substring(begin, j + 1));
-				}
-
-				begin = j + 1;
-				inTag = false;
-			}
+			graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
 		}
 
-		// Include trailing text (after last tag)
-		textWidth += metrics.stringWidth(line.substring(begin));
-
-		return textWidth;
+		return tooltipSize;
 	}
 
-	private void renderModIcon(Graphics2D graphics, int x, int y, IndexedSprite modIcon)
+	private static boolean isTextAntialiased(Graphics2D graphics)
 	{
-		int sourceOffset = 0;
-
-		for (int y2 = 0; y2 < modIcon.getHeight(); y2++)
-		{
-			for (int x2 = 0; x2 < modIcon.getWidth(); x2++)
-			{
-				int index = modIcon.getPixels()[sourceOffset++] & 0xff;
-
-				if (index != 0)
-				{
-					graphics.setColor(new Color(modIcon.getPalette()[index]));
-					graphics.drawLine(x + x2, y + y2, x + x2, y + y2);
-				}
-			}
-		}
+		final Object textAntialiasing = graphics.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+		return textAntialiasing != null
+			&& !RenderingHints.VALUE_TEXT_ANTIALIAS_OFF.equals(textAntialiasing)
+			&& !RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT.equals(textAntialiasing);
 	}
 
 	@Override
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Composites a stack of tooltips into a single image which is only redrawn when the stack changes, i.e. a tooltip is
+ * added or removed, or the alpha, position or layout of a tooltip changes. Unchanged frames cost a single drawImage.
+ * Usage per frame is begin, then add for each tooltip from bottom to top, then draw.
+ */
+public class AlphaTooltipLayer
+{
+	private static final int INITIAL_CAPACITY = 8;
+
+	private AlphaTooltipComponent[] components = new AlphaTooltipComponent[INITIAL_CAPACITY];
+	private AlphaTooltipLayout[] layouts = new AlphaTooltipLayout[INITIAL_CAPACITY];
+	private int[] states = new int[INITIAL_CAPACITY * 3]; // alpha, x and y of each tooltip
+	private int count;
+
+	// the stack as of the last redraw
+	private AlphaTooltipComponent[] lastComponents = new AlphaTooltipComponent[INITIAL_CAPACITY];
+	private AlphaTooltipLayout[] lastLayouts = new AlphaTooltipLayout[INITIAL_CAPACITY];
+	private int[] lastStates = new int[INITIAL_CAPACITY * 3];
+	private int lastCount;
+	private Font lastFont;
+
+	private FontMetrics metrics;
+	private BufferedImage image;
+
+	// the bounds of the stack of the current frame, kept as primitives so that adding a tooltip never allocates
+	private int minX;
+	private int minY;
+	private int maxX;
+	private int maxY;
+
+	// the bounds of the layer image as of the last redraw
+	private int lastX;
+	private int lastY;
+	private int lastWidth;
+	private int lastHeight;
+
+	@Getter
+	private long dirtyFrames;
+
+	@Getter
+	private long cleanFrames;
+
+	/**
+	 * Starts collecting the tooltips of a new frame.
+	 * @param graphics engine used to render, supplies the font the tooltips are measured with
+	 */
+	public void begin(Graphics2D graphics)
+	{
+		metrics = graphics.getFontMetrics();
+		count = 0;
+	}
+
+	/**
+	 * Adds a tooltip on top of the stack of the current frame.
+	 * @param component the tooltip to composite
+	 * @param alphaModifier the opacity of the tooltip
+	 */
+	public void add(AlphaTooltipComponent component, double alphaModifier)
+	{
+		ensureCapacity(count + 1);
+
+		final Point position = component.getPosition();
+		components[count] = component;
+		layouts[count] = component.getLayout();
+		states[count * 3] = AlphaUtil.getAlphaLevel(alphaModifier);
+		states[count * 3 + 1] = position.x;
+		states[count * 3 + 2] = position.y;
+
+		final Dimension size = component.measure(metrics);
+		if (count == 0)
+		{
+			minX = position.x;
+			minY = position.y;
+			maxX = position.x + size.width;
+			maxY = position.y + size.height;
+		}
+		else
+		{
+			minX = Math.min(minX, position.x);
+			minY = Math.min(minY, position.y);
+			maxX = Math.max(maxX, position.x + size.width);
+			maxY = Math.max(maxY, position.y + size.height);
+		}
+		count++;
+	}
+
+	/**
+	 * Draws the stack of the current frame, recompositing the layer image only if the stack changed.
+	 * @param graphics engine used to render
+	 */
+	public void draw(Graphics2D graphics)
+	{
+		if (count == 0)
+		{
+			lastCount = 0;
+			return;
+		}
+
+		if (isDirty(graphics.getFont()))
+		{
+			redraw(graphics);
+			dirtyFrames++;
+		}
+		else
+		{
+			cleanFrames++;
+		}
+
+		graphics.drawImage(image, lastX, lastY, null);
+	}
+
+	private boolean isDirty(Font font)
+	{
+		if (image == null || count != lastCount || minX != lastX || minY != lastY
+			|| maxX - minX != lastWidth || maxY - minY != lastHeight || !font.equals(lastFont))
+		{
+			return true;
+		}
+
+		for (int i = 0; i < count; i++)
+		{
+			if (components[i] != lastComponents[i] || layouts[i] != lastLayouts[i])
+			{
+				return true;
+			}
+		}
+		for (int i = 0; i < count * 3; i++)
+		{
+			if (states[i] != lastStates[i])
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void redraw(Graphics2D graphics)
+	{
+		final int width = Math.max(1, maxX - minX); // an image must be at least 1x1
+		final int height = Math.max(1, maxY - minY);
+		if (image == null || image.getWidth() < width || image.getHeight() < height)
+		{
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+
+		final Graphics2D layerGraphics = image.createGraphics();
+		layerGraphics.setComposite(AlphaComposite.Clear);
+		layerGraphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+		layerGraphics.setComposite(AlphaComposite.SrcOver);
+		layerGraphics.setRenderingHints(graphics.getRenderingHints());
+		layerGraphics.setFont(graphics.getFont());
+		layerGraphics.translate(-minX, -minY);
+		for (int i = 0; i < count; i++)
+		{
+			components[i].setAlphaModifier(states[i * 3] / 255.0);
+			components[i].render(layerGraphics);
+		}
+		layerGraphics.dispose();
+
+		System.arraycopy(components, 0, lastComponents, 0, count);
+		System.arraycopy(layouts, 0, lastLayouts, 0, count);
+		System.arraycopy(states, 0, lastStates, 0, count * 3);
+		lastCount = count;
+		lastX = minX;
+		lastY = minY;
+		lastWidth = maxX - minX;
+		lastHeight = maxY - minY;
+		lastFont = graphics.getFont();
+	}
+
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity > components.length)
+		{
+			final int newCapacity = Math.max(capacity, components.length * 2);
+			components = Arrays.copyOf(components, newCapacity);
+			layouts = Arrays.copyOf(layouts, newCapacity);
+			states = Arrays.copyOf(states, newCapacity * 3);
+			lastComponents = Arrays.copyOf(lastComponents, newCapacity);
+			lastLayouts = Arrays.copyOf(lastLayouts, newCapacity);
+			lastStates = Arrays.copyOf(lastStates, newCapacity * 3);
+		}
+	}
+
+	/**
+	 * Releases the layer image and the tooltips it references.
+	 */
+	public void clear()
+	{
+		Arrays.fill(components, null);
+		Arrays.fill(layouts, null);
+		Arrays.fill(lastComponents, null);
+		Arrays.fill(lastLayouts, null);
+		count = 0;
+		lastCount = 0;
+		lastFont = null;
+		metrics = null;
+		image = null;
+	}
+}
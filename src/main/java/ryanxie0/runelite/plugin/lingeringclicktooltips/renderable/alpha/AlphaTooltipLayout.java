@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Pre-parsed tooltip text. Lines are split on line breaks and each line is divided into colored text runs and icon
+ * runs, with color tags decoded ahead of time. Built once per tooltip so that rendering never scans tags.
+ */
+public class AlphaTooltipLayout
+{
+	private static final Pattern BR = Pattern.compile("</br>");
+	private static final int NO_ICON = -1;
+	static final int MOD_ICON_WIDTH = 13; // they are generally 13px wide
+
+	@Getter
+	private final String text;
+
+	private final Run[] runs;
+	private final int[] lineStarts; // lineStarts[i] is the index of the first run of line i, last entry is runs.length
+
+	// resolved once per font, see measure
+	private Font measuredFont;
+	private int[] runWidths;
+	private Dimension textSize;
+	private AlphaTextEffect[] runEffects;
+	private boolean runEffectsOutline;
+
+	@Value
+	static class Run
+	{
+		String text;
+		Color color;
+		int iconId;
+
+		boolean isIcon()
+		{
+			return iconId != NO_ICON;
+		}
+	}
+
+	private AlphaTooltipLayout(String text, Run[] runs, int[] lineStarts)
+	{
+		this.text = text;
+		this.runs = runs;
+		this.lineStarts = lineStarts;
+	}
+
+	/**
+	 * Parses tooltip text into lines of runs. Supports col, /col and img tags, other tags are kept as literal text.
+	 * @param text the tooltip text, may contain tags and line breaks
+	 * @return the layout of the text
+	 */
+	public static AlphaTooltipLayout parse(String text)
+	{
+		final List<Run> runs = new ArrayList<>();
+		final String[] lines = BR.split(text);
+		final int[] lineStarts = new int[lines.length + 1];
+
+		Color color = Color.WHITE;
+		for (int i = 0; i < lines.length; i++)
+		{
+			lineStarts[i] = runs.size();
+			final String line = lines[i];
+
+			int begin = 0;
+			boolean inTag = false;
+			for (int j = 0; j < line.length(); j++)
+			{
+				final char c = line.charAt(j);
+				if (c == '<')
+				{
+					addTextRun(runs, line.substring(begin, j), color);
+
+					begin = j;
+					inTag = true;
+				}
+				else if (c == '>' && inTag)
+				{
+					final String tag = line.substring(begin + 1, j);
+
+					if (tag.startsWith("col="))
+					{
+						color = Color.decode("#" + tag.substring(4));
+					}
+					else if (tag.equals("/col"))
+					{
+						color = Color.WHITE;
+					}
+					else if (tag.startsWith("img="))
+					{
+						runs.add(new Run(null, null, Integer.parseInt(tag.substring(4))));
+					}
+					else
+					{
+						addTextRun(runs, line.substring(begin, j + 1), color);
+					}
+
+					begin = j + 1;
+					inTag = false;
+				}
+			}
+
+			// trailing text (after last tag)
+			addTextRun(runs, line.substring(begin), color);
+		}
+		lineStarts[lines.length] = runs.size();
+
+		return new AlphaTooltipLayout(text, runs.toArray(new Run[0]), lineStarts);
+	}
+
+	private static void addTextRun(List<Run> runs, String text, Color color)
+	{
+		if (!text.isEmpty())
+		{
+			runs.add(new Run(text, color, NO_ICON));
+		}
+	}
+
+	/**
+	 * Measures the text block of the layout. Run widths are only recalculated when the font changes.
+	 * @param metrics the metrics of the font the tooltip is rendered with
+	 * @return the dimensions of the text, excluding any background padding
+	 */
+	public Dimension measure(FontMetrics metrics)
+	{
+		if (textSize == null || !metrics.getFont().equals(measuredFont))
+		{
+			final AlphaCharWidthTable widthTable = AlphaCharWidthTable.forMetrics(metrics);
+			runWidths = new int[runs.length];
+			int width = 0;
+			for (int i = 0; i < getLineCount(); i++)
+			{
+				int lineWidth = 0;
+				for (int j = lineStarts[i]; j < lineStarts[i + 1]; j++)
+				{
+					runWidths[j] = runs[j].isIcon() ? MOD_ICON_WIDTH : widthTable.stringWidth(runs[j].getText());
+					lineWidth += runWidths[j];
+				}
+				width = Math.max(width, lineWidth);
+			}
+			textSize = new Dimension(width, getLineCount() * metrics.getHeight());
+			measuredFont = metrics.getFont();
+			runEffects = null; // glyph outlines belong to the previous font
+		}
+		return textSize;
+	}
+
+	public int getLineCount()
+	{
+		return lineStarts.length - 1;
+	}
+
+	int getLineStart(int line)
+	{
+		return lineStarts[line];
+	}
+
+	int getLineEnd(int line)
+	{
+		return lineStarts[line + 1];
+	}
+
+	Run getRun(int index)
+	{
+		return runs[index];
+	}
+
+	/**
+	 * Gets the glyph outlines of a text run, built on first use. Must be called after measure so that the outlines
+	 * match the current font.
+	 * @param index the index of the run
+	 * @param metrics the metrics of the font the tooltip is rendered with
+	 * @param outline whether the text is outlined, otherwise shadowed
+	 * @return the glyph outlines of the run along with its shadow or outline
+	 */
+	AlphaTextEffect getRunEffect(int index, FontMetrics metrics, boolean outline)
+	{
+		if (runEffects == null || runEffectsOutline != outline)
+		{
+			runEffects = new AlphaTextEffect[runs.length];
+			runEffectsOutline = outline;
+		}
+
+		if (runEffects[index] == null)
+		{
+			runEffects[index] = AlphaTextEffect.create(metrics.getFont(), metrics.getFontRenderContext(), runs[index].getText(), outline);
+		}
+		return runEffects[index];
+	}
+
+	/**
+	 * @param index the index of the run
+	 * @return the width of the run as of the last call to measure
+	 */
+	int getRunWidth(int index)
+	{
+		return runWidths[index];
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021, Ryan Xie <ryanlxie@gmail.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * LRU cache of rasterized tooltips. Each distinct (text, background color, font, outline) combination is rendered
+ * once into an ARGB image, after which every frame only needs to blit the cached image.
+ */
+public class AlphaTooltipSpriteCache
+{
+	private static final int BYTES_PER_PIXEL = 4; // TYPE_INT_ARGB
+
+	private final Map<Key, BufferedImage> sprites = new LinkedHashMap<>(16, 0.75f, true);
+
+	@Getter
+	private long budgetBytes;
+
+	@Getter
+	private long usedBytes;
+
+	@Value
+	static class Key
+	{
+		String text;
+		int backgroundColor;
+		Font font;
+		boolean outline;
+
+		boolean matches(String text, Color backgroundColor, Font font, boolean outline)
+		{
+			return this.text.equals(text) && this.backgroundColor == backgroundColor.getRGB()
+				&& this.font.equals(font) && this.outline == outline;
+		}
+	}
+
+	/**
+	 * @param text the tooltip text, including tags
+	 * @param backgroundColor the tooltip background color
+	 * @param font the font the tooltip is rendered with
+	 * @param outline whether the tooltip text is outlined
+	 * @return the key under which the rasterized tooltip is stored
+	 */
+	static Key createKey(String text, Color backgroundColor, Font font, boolean outline)
+	{
+		return new Key(text, backgroundColor.getRGB(), font, outline);
+	}
+
+	/**
+	 * @param key the key of the rasterized tooltip
+	 * @return the cached image, null if not cached
+	 */
+	BufferedImage get(Key key)
+	{
+		return sprites.get(key);
+	}
+
+	/**
+	 * Stores a rasterized tooltip, then evicts the least recently used images until the cache fits the budget.
+	 * @param key the key of the rasterized tooltip
+	 * @param sprite the rasterized tooltip
+	 * @return whether the image was cached, false if it alone exceeds the budget
+	 */
+	boolean put(Key key, BufferedImage sprite)
+	{
+		long spriteBytes = getSizeInBytes(sprite);
+		if (spriteBytes > budgetBytes)
+		{
+			return false;
+		}
+
+		BufferedImage previous = sprites.put(key, sprite);
+		if (previous != null)
+		{
+			usedBytes -= getSizeInBytes(previous);
+		}
+		usedBytes += spriteBytes;
+		evict();
+		return true;
+	}
+
+	/**
+	 * @param budgetBytes the maximum number of bytes the cached images may occupy, 0 disables caching
+	 */
+	public void setBudgetBytes(long budgetBytes)
+	{
+		this.budgetBytes = Math.max(0, budgetBytes);
+		evict();
+	}
+
+	public boolean isEnabled()
+	{
+		return budgetBytes > 0;
+	}
+
+	public int size()
+	{
+		return sprites.size();
+	}
+
+	public void clear()
+	{
+		sprites.clear();
+		usedBytes = 0;
+	}
+
+	private void evict()
+	{
+		Iterator<BufferedImage> iterator = sprites.values().iterator();
+		while (usedBytes > budgetBytes && iterator.hasNext())
+		{
+			usedBytes -= getSizeInBytes(iterator.next());
+			iterator.remove();
+		}
+	}
+
+	private static long getSizeInBytes(BufferedImage sprite)
+	{
+		return (long) sprite.getWidth() * sprite.getHeight() * BYTES_PER_PIXEL;
+	}
+}
@@ -25,33 +25,58 @@
  */
 package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
 
-import java.awt.Color;
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
 
 public class AlphaUtil
 {
+	private static final AlphaComposite[] ALPHA_COMPOSITES = new AlphaComposite[256];
+
+	static
+	{
+		for (int i = 0; i < ALPHA_COMPOSITES.length; i++)
+		{
+			ALPHA_COMPOSITES[i] = AlphaComposite.SrcOver.derive(i / 255f);
+		}
+	}
+
 	/**
-	 * Applies the given alpha modifier to the transparency of the given color.
-	 * @param color The color to get the alpha modified version of.
+	 * Gets a shared source-over composite for the given alpha modifier, quantized to 256 levels so no composite is
+	 * allocated while fading.
 	 * @param alphaModifier The alpha modifier.
-	 * @return The alpha modified color or the passed Color object if alphaModifier == 1.0.
+	 * @return The source-over composite applying alphaModifier to everything drawn with it.
 	 */
-	public static Color getAlphaModdedColor(Color color, double alphaModifier)
+	public static AlphaComposite getAlphaComposite(double alphaModifier)
 	{
-		if (alphaModifier == 1.0)
-		{
-			return color;
-		}
-		else
-		{
-			int newAlpha = (int) (color.getAlpha() * alphaModifier);
-			// Clamp value to 0 - 255
-			newAlpha = Math.max(0, Math.min(newAlpha, 255));
+		return ALPHA_COMPOSITES[getAlphaLevel(alphaModifier)];
+	}
 
-			return new Color(
-				color.getRed(),
-				color.getGreen(),
-				color.getBlue(),
-				newAlpha);
+	/**
+	 * Quantizes the given alpha modifier to the 256 levels it is drawn with.
+	 * @param alphaModifier The alpha modifier.
+	 * @return The alpha level, from 0 to 255.
+	 */
+	public static int getAlphaLevel(double alphaModifier)
+	{
+		int alpha = (int) (alphaModifier * 255);
+		// Clamp value to 0 - 255
+		return Math.max(0, Math.min(alpha, 255));
+	}
+
+	/**
+	 * Applies the given alpha modifier to everything subsequently drawn with graphics.
+	 * @param graphics The graphics to apply the alpha modifier to.
+	 * @param alphaModifier The alpha modifier.
+	 * @return The composite graphics used before, to be restored once drawing is done.
+	 */
+	public static Composite applyAlphaModifier(Graphics2D graphics, double alphaModifier)
+	{
+		final Composite composite = graphics.getComposite();
+		if (alphaModifier < 1.0)
+		{
+			graphics.setComposite(getAlphaComposite(alphaModifier));
 		}
+		return composite;
 	}
 }
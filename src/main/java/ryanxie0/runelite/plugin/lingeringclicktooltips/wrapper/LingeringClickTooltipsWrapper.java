@@ -26,12 +26,13 @@
 package ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper;
 
 import lombok.Data;
+import net.runelite.client.ui.overlay.tooltip.Tooltip;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeProfile;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipComponent;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipLayout;
 
 import java.awt.Point;
 import java.awt.Color;
-import java.time.Duration;
-import java.time.Instant;
 
 @Data
 public class LingeringClickTooltipsWrapper {
@@ -39,9 +40,14 @@ public class LingeringClickTooltipsWrapper {
     private boolean isInfoTooltip;
     private boolean isClamped;
     private String text;
+    private AlphaTooltipLayout layout;
     private Color backgroundColor;
-    private Instant timeOfCreation;
+    private long timeOfCreation; // ms, from LingeringClickTooltipsFrameClock
     private Point location;
     private AlphaTooltipComponent renderableComponent;
-    private Duration tooltipDuration;
+    private Tooltip managedTooltip;
+    private long tooltipDuration; // ms
+    private LingeringClickTooltipsFadeProfile fadeProfile;
+    private int repeatCount;
+    private int ringBufferSlot = -1; // physical slot in LingeringClickTooltipsRingBuffer, -1 when not stored
 }
@@ -26,25 +26,34 @@
 package ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper;
 
 import net.runelite.api.Client;
+import net.runelite.client.ui.overlay.tooltip.Tooltip;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsConfig;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsSettings;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeProfile;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaModIconCache;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaRenderPool;
 import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipComponent;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipLayout;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha.AlphaTooltipSpriteCache;
 
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Point;
-import java.time.Duration;
-import java.time.Instant;
 
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.LingeringClickTooltipsLocation.*;
 import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeConstants.*;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.fade.LingeringClickTooltipsFadeManager.*;
 
 public class LingeringClickTooltipsWrapperUtil {
 
+    private static final String REPEAT_COUNT_PREFIX = " x";
+
     /**
      * @param tooltipText the text of the tooltip, includes color tags and the full action as seen by the user
      * @param location the location of the tooltip, includes config offset but NOT clamping (clamp is handled by the overlay as it requires Dimension)
      * @param backgroundColor the background color of the tooltip as chosen by the various different sources, see LingeringClickTooltipsColorUtil.java
      * @param isInfoTooltip whether the tooltip is an info tooltip, used later for determining adjusted duration, fadeout, permanence bypass, etc.
+     * @param timeOfCreation the time the tooltip is created at in ms, from LingeringClickTooltipsFrameClock
      * @return the tooltip wrapper which is used to construct a renderable component
      */
     public static LingeringClickTooltipsWrapper buildTooltipWrapper(
@@ -52,7 +61,7 @@ public class LingeringClickTooltipsWrapperUtil {
         Point location,
         Color backgroundColor,
         boolean isInfoTooltip,
-        LingeringClickTooltipsConfig config
+        long timeOfCreation
     )
     {
         LingeringClickTooltipsWrapper tooltipWrapper = new LingeringClickTooltipsWrapper();
@@ -60,13 +69,35 @@ public class LingeringClickTooltipsWrapperUtil {
         tooltipWrapper.setInfoTooltip(isInfoTooltip);
         tooltipWrapper.setClamped(false);
         tooltipWrapper.setText(tooltipText);
+        tooltipWrapper.setLayout(AlphaTooltipLayout.parse(tooltipText)); // parsed once per tooltip, not per frame
         tooltipWrapper.setBackgroundColor(backgroundColor);
-        tooltipWrapper.setTimeOfCreation(Instant.now());
+        tooltipWrapper.setTimeOfCreation(timeOfCreation);
         tooltipWrapper.setLocation(location);
-        tooltipWrapper.setTooltipDuration(calculateTotalTooltipDuration(isInfoTooltip, config));
+        LingeringClickTooltipsFadeProfile fadeProfile = isInfoTooltip ? getInfoFadeProfile() : getTooltipFadeProfile();
+        tooltipWrapper.setFadeProfile(fadeProfile);
+        tooltipWrapper.setTooltipDuration(fadeProfile.getTotalDuration());
+        tooltipWrapper.setRepeatCount(1);
         return tooltipWrapper;
     }
 
+    /**
+     * Counts another repeat of the action shown by a tooltip, appending the repeat count to the rendered text. The
+     * tooltip keeps its component, only the layout is replaced and clamping is calculated again.
+     * @param tooltip the tooltip wrapper which was repeated
+     * @param location the location of the repeated click, null if location is not necessary
+     */
+    public static void applyRepeat(LingeringClickTooltipsWrapper tooltip, Point location)
+    {
+        tooltip.setRepeatCount(tooltip.getRepeatCount() + 1);
+        tooltip.setLayout(AlphaTooltipLayout.parse(tooltip.getText() + REPEAT_COUNT_PREFIX + tooltip.getRepeatCount()));
+        tooltip.setLocation(location);
+        tooltip.setClamped(false);
+        if (tooltip.getRenderableComponent() != null)
+        {
+            tooltip.getRenderableComponent().setLayout(tooltip.getLayout());
+        }
+    }
+
     /**
      * This method returns tooltip text = option when target is empty (i.e. there was no target) or if target == option.
      * The latter case is meant to avoid confusing text for actions such as a use initiate, where the text would
@@ -77,42 +108,47 @@ public class LingeringClickTooltipsWrapperUtil {
      */
     public static String getRawTooltipText(String option, String target)
     {
-        String tooltipText = option + (target.equals("") || option.equals(target) ? "" : " " + target);
-        tooltipText = tooltipText.replaceAll("\\s+$", ""); // trim any trailing whitespace
-        return tooltipText;
+        String tooltipText = target.isEmpty() || option.equals(target) ? option : option + " " + target;
+        int end = tooltipText.length();
+        while (end > 0 && Character.isWhitespace(tooltipText.charAt(end - 1)))
+        {
+            end--; // trim any trailing whitespace without a regex
+        }
+        return end == tooltipText.length() ? tooltipText : tooltipText.substring(0, end);
     }
 
     /**
      * This method returns null for cases where location is not necessary, e.g. tooltips handled by the TooltipManager.
      * A null location is later used to avoid further unnecessary calculations regarding tooltip location.
      * @param location the exact location of the click input by the user
-     * @param config the configuration settings for the plugin
+     * @param settings the snapshot of the configuration settings for the plugin
      * @return location adjusted according to the offsets specified by the user in the config
      */
-    public static Point getOffsetLocation(Point location, LingeringClickTooltipsConfig config)
+    public static Point getOffsetLocation(Point location, LingeringClickTooltipsSettings settings)
     {
-        if (config.tooltipLocation() == ANCHORED || config.trackerMode() || config.tooltipLocation() == FIXED)
+        if (settings.getTooltipLocation() == ANCHORED || settings.isTrackerMode() || settings.getTooltipLocation() == FIXED)
         {
             return null;
         }
-        location.translate(config.tooltipXOffset(), config.tooltipYOffset());
+        location.translate(settings.getTooltipXOffset(), settings.getTooltipYOffset());
         return location;
     }
 
     /**
      * Calculates the total tooltip duration accounting for various different factors.
      * @param isInfoTooltip whether the tooltip is an info tooltip
+     * @param isFastMode whether the tooltip is shortened by fast mode
      * @param config the configuration settings for the plugin
-     * @return the total tooltip duration
+     * @return the total tooltip duration in ms
      */
-    public static Duration calculateTotalTooltipDuration(boolean isInfoTooltip, LingeringClickTooltipsConfig config)
+    public static long calculateTotalTooltipDuration(boolean isInfoTooltip, boolean isFastMode, LingeringClickTooltipsConfig config)
     {
         int totalTooltipDuration = config.tooltipDuration();
         if (isInfoTooltip)
         {
             totalTooltipDuration *= INFO_TOOLTIP_MULTIPLIER;
         }
-        else if (config.fastMode())
+        else if (isFastMode)
         {
             totalTooltipDuration /= FAST_MODE_MULTIPLIER;
         }
@@ -125,7 +161,7 @@ public class LingeringClickTooltipsWrapperUtil {
         {
             totalTooltipDuration += totalTooltipDuration * config.tooltipFadeout() / 100.0;
         }
-        return Duration.ofMillis(totalTooltipDuration);
+        return totalTooltipDuration;
     }
 
     /**
@@ -135,16 +171,16 @@ public class LingeringClickTooltipsWrapperUtil {
      * @param dimension the dimension of the component, contains the necessary height and width of the tooltips
      * @param location the location the component would like to render at
      * @param client the RuneLite client API, contains the necessary height and width of the canvas
-     * @param config the configuration settings for the plugin
+     * @param settings the snapshot of the configuration settings for the plugin
      * @return the adjusted location of the tooltip accounting for component dimension/location, canvas dimensions, and padding
      */
-    public static Point getClampedLocation(Dimension dimension, Point location, Client client, LingeringClickTooltipsConfig config)
+    public static Point getClampedLocation(Dimension dimension, Point location, Client client, LingeringClickTooltipsSettings settings)
     {
         int clampedX = location.x;
         int clampedY = location.y;
 
-        int xPadding = config.clampXPadding();
-        int yPadding = config.clampYPadding();
+        int xPadding = settings.getClampXPadding();
+        int yPadding = settings.getClampYPadding();
 
         int xMax = client.getCanvasWidth();
         int yMax = client.getCanvasHeight();
@@ -174,18 +210,28 @@ public class LingeringClickTooltipsWrapperUtil {
      * Used to build the renderable component, called once per new tooltip wrapper. It does not need to set the alpha
      * modifier because the rendering code calculates and sets the alpha just before calling render.
      * @param tooltip the tooltip wrapper which is used to construct a renderable component
-     * @param client the RuneLite client API
+     * @param modIconCache the cache holding mod icon images, shared by all components
+     * @param spriteCache the cache holding rasterized tooltips, shared by all components
+     * @param renderPool the reusable render objects, shared by all components
      */
-    public static void buildAlphaTooltipComponent(LingeringClickTooltipsWrapper tooltip, Client client)
+    public static void buildAlphaTooltipComponent(
+        LingeringClickTooltipsWrapper tooltip,
+        AlphaModIconCache modIconCache,
+        AlphaTooltipSpriteCache spriteCache,
+        AlphaRenderPool renderPool
+    )
     {
         AlphaTooltipComponent alphaTooltipComponent = new AlphaTooltipComponent();
-        alphaTooltipComponent.setText(tooltip.getText());
-        alphaTooltipComponent.setModIcons(client.getModIcons());
+        alphaTooltipComponent.setLayout(tooltip.getLayout());
+        alphaTooltipComponent.setModIconCache(modIconCache);
         alphaTooltipComponent.setBackgroundColor(tooltip.getBackgroundColor());
+        alphaTooltipComponent.setSpriteCache(spriteCache);
+        alphaTooltipComponent.setRenderPool(renderPool);
         if (tooltip.getLocation() != null)
         {
             alphaTooltipComponent.setPosition(tooltip.getLocation());
         }
         tooltip.setRenderableComponent(alphaTooltipComponent);
+        tooltip.setManagedTooltip(new Tooltip(alphaTooltipComponent)); // reused every frame by the TooltipManager
     }
 }
@@ -0,0 +1,98 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsCommandQueueTest
+{
+	private static final LingeringClickTooltipsCommand[] COMMANDS = LingeringClickTooltipsCommand.values();
+
+	@Test
+	public void testOrderAtFullCapacity()
+	{
+		LingeringClickTooltipsCommandQueue queue = new LingeringClickTooltipsCommandQueue();
+		for (int i = 0; i < LingeringClickTooltipsCommandQueue.CAPACITY; i++)
+		{
+			assertTrue(queue.offer(COMMANDS[i % COMMANDS.length]));
+		}
+		assertFalse(queue.offer(LingeringClickTooltipsCommand.PEEK));
+
+		for (int i = 0; i < LingeringClickTooltipsCommandQueue.CAPACITY; i++)
+		{
+			assertSame(COMMANDS[i % COMMANDS.length], queue.poll());
+		}
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void testOrderAcrossWraparound()
+	{
+		LingeringClickTooltipsCommandQueue queue = new LingeringClickTooltipsCommandQueue();
+		int offered = 0;
+		int polled = 0;
+		for (int round = 0; round < 5; round++)
+		{
+			while (queue.offer(COMMANDS[offered % COMMANDS.length]))
+			{
+				offered++;
+			}
+			// leave a few commands behind so the next round starts part way through the array
+			for (int i = 0; i < LingeringClickTooltipsCommandQueue.CAPACITY - 3; i++)
+			{
+				assertSame(COMMANDS[polled++ % COMMANDS.length], queue.poll());
+			}
+		}
+
+		LingeringClickTooltipsCommand command;
+		while ((command = queue.poll()) != null)
+		{
+			assertSame(COMMANDS[polled++ % COMMANDS.length], command);
+		}
+		assertEquals(offered, polled);
+	}
+
+	@Test(timeout = 10000)
+	public void testOrderBetweenThreads() throws InterruptedException
+	{
+		final int count = 100000;
+		final LingeringClickTooltipsCommandQueue queue = new LingeringClickTooltipsCommandQueue();
+		Thread producer = new Thread(() ->
+		{
+			for (int i = 0; i < count; i++)
+			{
+				while (!queue.offer(COMMANDS[i % COMMANDS.length]))
+				{
+					Thread.yield(); // full, wait for the consumer
+				}
+			}
+		});
+		producer.start();
+
+		List<LingeringClickTooltipsCommand> received = new ArrayList<>(count);
+		while (received.size() < count)
+		{
+			LingeringClickTooltipsCommand command = queue.poll();
+			if (command == null)
+			{
+				Thread.yield();
+				continue;
+			}
+			received.add(command);
+		}
+		producer.join();
+
+		for (int i = 0; i < count; i++)
+		{
+			assertSame(COMMANDS[i % COMMANDS.length], received.get(i));
+		}
+		assertNull(queue.poll());
+	}
+}
@@ -0,0 +1,104 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import org.junit.Before;
+import org.junit.Test;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsExpiryWheelTest
+{
+	private LingeringClickTooltipsExpiryWheel wheel;
+	private List<LingeringClickTooltipsWrapper> expired;
+
+	@Before
+	public void before()
+	{
+		wheel = new LingeringClickTooltipsExpiryWheel();
+		expired = new ArrayList<>();
+		wheel.advance(0, expired);
+	}
+
+	private LingeringClickTooltipsWrapper schedule(long timeOfCreation, long tooltipDuration)
+	{
+		LingeringClickTooltipsWrapper tooltip = new LingeringClickTooltipsWrapper();
+		tooltip.setTimeOfCreation(timeOfCreation);
+		tooltip.setTooltipDuration(tooltipDuration);
+		wheel.schedule(tooltip, LingeringClickTooltipsExpiryWheel.calculateDeadline(tooltip));
+		return tooltip;
+	}
+
+	@Test
+	public void testExpiresWithinOneTickOfDeadline()
+	{
+		LingeringClickTooltipsWrapper tooltip = schedule(100, 1000);
+
+		wheel.advance(1099, expired);
+		assertTrue(expired.isEmpty());
+
+		wheel.advance(1104, expired);
+		assertEquals(1, expired.size());
+		assertSame(tooltip, expired.get(0));
+	}
+
+	@Test
+	public void testAdvanceWithinDeadlineTickDoesNotWaitARotation()
+	{
+		LingeringClickTooltipsWrapper tooltip = schedule(100, 1000);
+
+		// 1095 lies in the same tick as the deadline of 1100 but before it
+		wheel.advance(1095, expired);
+		assertTrue(expired.isEmpty());
+
+		wheel.advance(1110, expired);
+		assertEquals(1, expired.size());
+		assertSame(tooltip, expired.get(0));
+	}
+
+	@Test
+	public void testDeadlineBeyondOneRotation()
+	{
+		LingeringClickTooltipsWrapper tooltip = schedule(0, 10000);
+
+		for (long now = 16; now < 10000; now += 16)
+		{
+			wheel.advance(now, expired);
+			assertTrue("expired early at " + now, expired.isEmpty());
+		}
+
+		wheel.advance(10000, expired);
+		assertEquals(1, expired.size());
+		assertSame(tooltip, expired.get(0));
+	}
+
+	@Test
+	public void testPassedDeadlineIsDueAtNextAdvance()
+	{
+		wheel.advance(5000, expired);
+		LingeringClickTooltipsWrapper tooltip = schedule(1000, 1000);
+
+		wheel.advance(5016, expired);
+		assertEquals(1, expired.size());
+		assertSame(tooltip, expired.get(0));
+	}
+
+	@Test
+	public void testRescheduledTooltipExpiresOnlyAtNewDeadline()
+	{
+		LingeringClickTooltipsWrapper tooltip = schedule(0, 1000);
+		tooltip.setTimeOfCreation(800);
+		wheel.schedule(tooltip, LingeringClickTooltipsExpiryWheel.calculateDeadline(tooltip));
+
+		wheel.advance(1200, expired);
+		assertTrue(expired.isEmpty());
+
+		wheel.advance(1808, expired);
+		assertEquals(1, expired.size());
+		assertSame(tooltip, expired.get(0));
+	}
+}
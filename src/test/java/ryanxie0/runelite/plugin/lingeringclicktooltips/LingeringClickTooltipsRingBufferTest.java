@@ -0,0 +1,125 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips;
+
+import org.junit.Test;
+import ryanxie0.runelite.plugin.lingeringclicktooltips.wrapper.LingeringClickTooltipsWrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsRingBufferTest
+{
+	private static LingeringClickTooltipsWrapper tooltip(String text)
+	{
+		LingeringClickTooltipsWrapper tooltip = new LingeringClickTooltipsWrapper();
+		tooltip.setText(text);
+		return tooltip;
+	}
+
+	@Test
+	public void testAddEvictsOldestWhenFull()
+	{
+		LingeringClickTooltipsRingBuffer buffer = new LingeringClickTooltipsRingBuffer(3);
+		LingeringClickTooltipsWrapper[] added = new LingeringClickTooltipsWrapper[5];
+		for (int i = 0; i < added.length; i++)
+		{
+			added[i] = tooltip("tooltip " + i);
+			buffer.add(added[i]);
+		}
+
+		assertEquals(3, buffer.getSize());
+		assertEquals(3, buffer.span());
+		assertSame(added[2], buffer.get(0));
+		assertSame(added[3], buffer.get(1));
+		assertSame(added[4], buffer.get(2));
+		assertSame(added[4], buffer.peekNewest());
+	}
+
+	@Test
+	public void testWraparoundKeepsOrder()
+	{
+		LingeringClickTooltipsRingBuffer buffer = new LingeringClickTooltipsRingBuffer(4);
+		LingeringClickTooltipsWrapper[] added = new LingeringClickTooltipsWrapper[10];
+		for (int i = 0; i < added.length; i++)
+		{
+			added[i] = tooltip("tooltip " + i);
+			buffer.add(added[i]);
+			if (i % 2 == 1)
+			{
+				buffer.remove(0);
+			}
+		}
+
+		// every second add removed the oldest, so the head has wrapped around the store
+		assertEquals(3, buffer.getSize());
+		for (int i = 0; i < buffer.span(); i++)
+		{
+			assertSame(added[7 + i], buffer.get(i));
+		}
+	}
+
+	@Test
+	public void testRemoveLeavesHoleUntilHead()
+	{
+		LingeringClickTooltipsRingBuffer buffer = new LingeringClickTooltipsRingBuffer(4);
+		LingeringClickTooltipsWrapper first = tooltip("first");
+		LingeringClickTooltipsWrapper second = tooltip("second");
+		LingeringClickTooltipsWrapper third = tooltip("third");
+		buffer.add(first);
+		buffer.add(second);
+		buffer.add(third);
+
+		assertTrue(buffer.remove(second));
+		assertFalse(buffer.remove(second));
+		assertEquals(2, buffer.getSize());
+		assertEquals(3, buffer.span());
+		assertNull(buffer.get(1));
+
+		// removing the head reclaims the hole behind it as well
+		assertTrue(buffer.remove(first));
+		assertEquals(1, buffer.getSize());
+		assertEquals(1, buffer.span());
+		assertSame(third, buffer.get(0));
+	}
+
+	@Test
+	public void testAddCompactsHolesWhenSpanIsFull()
+	{
+		LingeringClickTooltipsRingBuffer buffer = new LingeringClickTooltipsRingBuffer(3);
+		LingeringClickTooltipsWrapper first = tooltip("first");
+		LingeringClickTooltipsWrapper second = tooltip("second");
+		LingeringClickTooltipsWrapper third = tooltip("third");
+		LingeringClickTooltipsWrapper fourth = tooltip("fourth");
+		buffer.add(first);
+		buffer.add(second);
+		buffer.add(third);
+		buffer.remove(second);
+
+		buffer.add(fourth);
+
+		// the hole is compacted away rather than evicting the oldest tooltip
+		assertEquals(3, buffer.getSize());
+		assertSame(first, buffer.get(0));
+		assertSame(third, buffer.get(1));
+		assertSame(fourth, buffer.get(2));
+		assertTrue(buffer.remove(third));
+		assertTrue(buffer.remove(fourth));
+		assertSame(first, buffer.peekNewest());
+	}
+
+	@Test
+	public void testClear()
+	{
+		LingeringClickTooltipsRingBuffer buffer = new LingeringClickTooltipsRingBuffer(2);
+		LingeringClickTooltipsWrapper first = tooltip("first");
+		buffer.add(first);
+		buffer.clear();
+
+		assertTrue(buffer.isEmpty());
+		assertEquals(0, buffer.span());
+		assertNull(buffer.peekNewest());
+		assertFalse(buffer.remove(first));
+	}
+}
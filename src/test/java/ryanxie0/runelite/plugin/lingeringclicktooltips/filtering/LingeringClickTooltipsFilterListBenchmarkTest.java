@@ -0,0 +1,87 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsFilterListBenchmarkTest
+{
+	private static final int ROUNDS = 7;
+	private static final int CLICKS_PER_ROUND = 100000;
+
+	private static final String[] CLICK_TEXTS = {
+		"Attack Goblin (level-2)", "Attack Guard (level-21)", "Talk-to Banker", "Bank Banker", "Walk here",
+		"Pickpocket Man", "Use Tinderbox -> Logs", "Chop down Tree", "Take Bones", "Cast Fire Strike -> Goblin",
+		"Attack Monster7 (level-7)", "Pickpocket Guard7", "Talk-to Npc7", "Mine Rocks", "Open Door",
+	};
+
+	/**
+	 * @param ruleCount the number of glob and regex entries in the list
+	 * @return a blacklist of the kind entries a user writes, each rule naming a different monster or npc
+	 */
+	private static LingeringClickTooltipsFilterList compileRules(int ruleCount)
+	{
+		List<String> entries = new ArrayList<>(ruleCount);
+		for (int i = 0; i < ruleCount; i++)
+		{
+			switch (i % 3)
+			{
+				case 0:
+					entries.add("Attack Monster" + i + " *");
+					break;
+				case 1:
+					entries.add("* Guard" + i);
+					break;
+				default:
+					entries.add("/Talk-to Npc" + i + "( \\(level-\\d+\\))?/");
+					break;
+			}
+		}
+		return LingeringClickTooltipsFilterList.compile(entries);
+	}
+
+	/**
+	 * @return the fastest time over ROUNDS of CLICKS_PER_ROUND clicks, so that warm up and other work do not count
+	 */
+	private static long timeClicks(LingeringClickTooltipsFilterList filterList)
+	{
+		long fastestTime = Long.MAX_VALUE;
+		int matches = 0;
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			long startTime = System.nanoTime();
+			for (int i = 0; i < CLICKS_PER_ROUND; i++)
+			{
+				if (filterList.contains(CLICK_TEXTS[i % CLICK_TEXTS.length]))
+				{
+					matches++;
+				}
+			}
+			fastestTime = Math.min(fastestTime, System.nanoTime() - startTime);
+		}
+		assertTrue(matches > 0);
+		return fastestTime;
+	}
+
+	@Test
+	public void testClickCostIsFlatInRuleCount()
+	{
+		LingeringClickTooltipsFilterList fewRules = compileRules(10);
+		LingeringClickTooltipsFilterList manyRules = compileRules(10000);
+		assertEquals(10000, manyRules.size());
+		timeClicks(fewRules); // warm up, so that neither list is timed while its automaton fills its cache
+		timeClicks(manyRules);
+
+		long fewRulesTime = timeClicks(fewRules);
+		long manyRulesTime = timeClicks(manyRules);
+		System.out.printf("Filter list click: %d ns with 10 rules, %d ns with 10000 rules%n",
+			fewRulesTime / CLICKS_PER_ROUND, manyRulesTime / CLICKS_PER_ROUND);
+
+		// both lists read one table entry per char, a linear scan would be 1000 times slower with 10000 rules
+		assertTrue("10 rules: " + fewRulesTime + " ns, 10000 rules: " + manyRulesTime + " ns", manyRulesTime < fewRulesTime * 4);
+	}
+}
@@ -0,0 +1,131 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class LingeringClickTooltipsFilterListFilesTest
+{
+	private static final int ONE_MIB = 1 << 20;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private List<String> read(byte[] contents) throws IOException
+	{
+		Path path = folder.newFile().toPath();
+		Files.write(path, contents);
+		return LingeringClickTooltipsFilterListFiles.readFilterList(path);
+	}
+
+	private List<String> read(String contents) throws IOException
+	{
+		return read(contents.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// appends ASCII entries to contents until it is exactly length bytes long, returning the entries appended
+	private static List<String> buildFile(int length, StringBuilder contents)
+	{
+		List<String> entries = new ArrayList<>();
+		while (true)
+		{
+			String entry = "Attack Goblin " + entries.size();
+			if (contents.length() + entry.length() + 1 > length)
+			{
+				break;
+			}
+			contents.append(entry).append('\n');
+			entries.add(entry);
+		}
+		// pad the last entry so the file ends exactly at length
+		if (contents.length() < length)
+		{
+			String padding = String.join("", Collections.nCopies(length - contents.length(), "x"));
+			contents.append(padding);
+			entries.add(padding);
+		}
+		return entries;
+	}
+
+	@Test
+	public void testSeparatorsCommentsAndByteOrderMark() throws IOException
+	{
+		List<String> entries = read("\uFEFF# comment\r\nAttack Goblin\r\n\r\n  Talk-to Banker  ,Bank Banker\n#Attack Cow\nUse * -> Logs");
+		assertEquals(Arrays.asList("Attack Goblin", "Talk-to Banker", "Bank Banker", "Use * -> Logs"), entries);
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException
+	{
+		assertEquals(Collections.emptyList(), read(new byte[0]));
+	}
+
+	@Test
+	public void testMultibyteCharacterAcrossChunkBoundary() throws IOException
+	{
+		// each of the characters before the boundary is 3 bytes, so one of them is split between two reads
+		String prefix = String.join("", Collections.nCopies(LingeringClickTooltipsFilterListFiles.READ_CHUNK_SIZE / 3 - 1, "a"));
+		String entry = prefix + "\u20AC\u20AC\u20AC\u20AC\u00E9";
+		byte[] contents = (entry + "\nLast").getBytes(StandardCharsets.UTF_8);
+		assertEquals(Arrays.asList(entry, "Last"), read(contents));
+
+		for (int offset = -4; offset <= 4; offset++)
+		{
+			String shifted = String.join("", Collections.nCopies(LingeringClickTooltipsFilterListFiles.READ_CHUNK_SIZE - 2 + offset, "b")) + "\u20AC";
+			assertEquals(Collections.singletonList(shifted), read(shifted));
+		}
+	}
+
+	@Test
+	public void testEntryAcrossChunkBoundary() throws IOException
+	{
+		for (int length = LingeringClickTooltipsFilterListFiles.READ_CHUNK_SIZE - 2; length <= LingeringClickTooltipsFilterListFiles.READ_CHUNK_SIZE + 2; length++)
+		{
+			StringBuilder contents = new StringBuilder();
+			List<String> entries = buildFile(length, contents);
+			assertEquals(length, contents.length());
+			assertEquals(entries, read(contents.toString()));
+		}
+	}
+
+	@Test
+	public void testFilesAroundOneMebibyte() throws IOException
+	{
+		for (int length = ONE_MIB - 1; length <= ONE_MIB + 1; length++)
+		{
+			StringBuilder contents = new StringBuilder();
+			List<String> entries = buildFile(length, contents);
+			assertEquals(entries, read(contents.toString()));
+		}
+	}
+
+	@Test
+	public void testMalformedBytesAreReplaced() throws IOException
+	{
+		byte[] contents = {'A', (byte) 0xC3, '\n', 'B', (byte) 0xE2, (byte) 0x82};
+		assertEquals(Arrays.asList("A\uFFFD", "B\uFFFD"), read(contents));
+	}
+
+	@Test
+	public void testWriteThenRead() throws IOException
+	{
+		Path path = folder.getRoot().toPath().resolve("lists").resolve("blacklist.txt");
+		List<String> entries = Arrays.asList("Attack Goblin", "/Attack .*/", "Use * -> Logs", "Eat Caf\u00E9 cake");
+		LingeringClickTooltipsFilterListFiles.writeFilterList(path, entries);
+		assertEquals(entries, LingeringClickTooltipsFilterListFiles.readFilterList(path));
+
+		LingeringClickTooltipsFilterListFiles.writeFilterList(path, Collections.singletonList("Talk-to Banker"));
+		assertEquals(Collections.singletonList("Talk-to Banker"), LingeringClickTooltipsFilterListFiles.readFilterList(path));
+	}
+}
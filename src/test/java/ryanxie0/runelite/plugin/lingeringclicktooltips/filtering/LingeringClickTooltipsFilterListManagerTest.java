@@ -0,0 +1,83 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringConstants.NO_CLICK_KEY;
+
+public class LingeringClickTooltipsFilterListManagerTest
+{
+	private static final String ATTACK_GOBLIN = "Attack Goblin";
+	private static final long GOBLIN_A = LingeringClickTooltipsFilteringUtil.getClickKey(9, 3029);
+	private static final long GOBLIN_B = LingeringClickTooltipsFilteringUtil.getClickKey(9, 3030);
+
+	private LingeringClickTooltipsFilterList filterList;
+	private LingeringClickTooltipsIdFilterList idFilterList;
+
+	@Before
+	public void before()
+	{
+		filterList = LingeringClickTooltipsFilterList.compile(Collections.emptyList());
+		idFilterList = LingeringClickTooltipsIdFilterList.compile(Collections.emptyList());
+	}
+
+	private boolean toggle(String text, long clickKey)
+	{
+		return LingeringClickTooltipsFilterListManager.toggleEntry(filterList, idFilterList, text, clickKey);
+	}
+
+	private boolean isFiltered(String text, long clickKey)
+	{
+		return filterList.contains(text) || idFilterList.contains(clickKey);
+	}
+
+	@Test
+	public void testToggleAddsAndRemovesBothForms()
+	{
+		assertTrue(toggle(ATTACK_GOBLIN, GOBLIN_A));
+		assertTrue(filterList.containsEntry(ATTACK_GOBLIN));
+		assertTrue(idFilterList.contains(GOBLIN_A));
+
+		assertFalse(toggle(ATTACK_GOBLIN, GOBLIN_A));
+		assertFalse(filterList.containsEntry(ATTACK_GOBLIN));
+		assertFalse(idFilterList.contains(GOBLIN_A));
+	}
+
+	@Test
+	public void testRemovingTextFromAnotherTargetRemovesItsIds()
+	{
+		assertTrue(toggle(ATTACK_GOBLIN, GOBLIN_A));
+		assertTrue(isFiltered(ATTACK_GOBLIN, GOBLIN_B)); // listed by text
+
+		assertFalse(toggle(ATTACK_GOBLIN, GOBLIN_B));
+		assertFalse(isFiltered(ATTACK_GOBLIN, GOBLIN_A));
+		assertFalse(isFiltered(ATTACK_GOBLIN, GOBLIN_B));
+		assertEquals(0, idFilterList.size());
+	}
+
+	@Test
+	public void testRemovingIdWithAnotherTextRemovesItsText()
+	{
+		assertTrue(toggle(ATTACK_GOBLIN, GOBLIN_A));
+		assertTrue(isFiltered("Attack Goblin (level-5)", GOBLIN_A)); // listed by id
+
+		assertFalse(toggle("Attack Goblin (level-5)", GOBLIN_A));
+		assertFalse(isFiltered(ATTACK_GOBLIN, GOBLIN_A));
+		assertFalse(isFiltered(ATTACK_GOBLIN, GOBLIN_B));
+	}
+
+	@Test
+	public void testClickWithoutKeyIsOnlyListedByText()
+	{
+		assertTrue(toggle("Walk here", NO_CLICK_KEY));
+		assertTrue(filterList.containsEntry("Walk here"));
+		assertFalse(idFilterList.contains(NO_CLICK_KEY));
+		assertFalse(toggle("Walk here", NO_CLICK_KEY));
+		assertFalse(filterList.containsEntry("Walk here"));
+	}
+}
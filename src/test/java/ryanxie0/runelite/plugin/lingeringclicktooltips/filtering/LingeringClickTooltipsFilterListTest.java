@@ -0,0 +1,157 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsFilterListTest
+{
+	private static LingeringClickTooltipsFilterList compile(String... entries)
+	{
+		return LingeringClickTooltipsFilterList.compile(Arrays.asList(entries));
+	}
+
+	private static boolean matchesGlob(String glob, String text)
+	{
+		return compile(glob).contains(text);
+	}
+
+	@Test
+	public void testLiteralEntries()
+	{
+		LingeringClickTooltipsFilterList filterList = compile("Attack Goblin", "Talk-to Banker");
+		assertTrue(filterList.contains("Attack Goblin"));
+		assertFalse(filterList.contains("Attack Goblin (level-2)"));
+		assertFalse(filterList.contains("attack goblin"));
+	}
+
+	@Test
+	public void testGlobWildcards()
+	{
+		assertTrue(matchesGlob("Attack *", "Attack Goblin"));
+		assertTrue(matchesGlob("Attack *", "Attack "));
+		assertFalse(matchesGlob("Attack *", "Attack"));
+		assertTrue(matchesGlob("* Goblin", "Attack Goblin"));
+		assertTrue(matchesGlob("*Goblin*", "Attack Goblin (level-2)"));
+		assertTrue(matchesGlob("*", ""));
+		assertTrue(matchesGlob("a*a", "aa"));
+		assertFalse(matchesGlob("a*a", "a"));
+		assertTrue(matchesGlob("Use * -> *", "Use Tinderbox -> Logs"));
+		assertFalse(matchesGlob("Use * -> *", "Use Tinderbox on Logs"));
+	}
+
+	@Test
+	public void testGlobMiddleSegmentsInOrder()
+	{
+		assertTrue(matchesGlob("*a*b*c*", "xaybzc"));
+		assertFalse(matchesGlob("*a*b*c*", "xcybza"));
+		// the middle segment must not overlap the last segment
+		assertFalse(matchesGlob("*ab*b", "ab"));
+		assertTrue(matchesGlob("*ab*b", "abb"));
+	}
+
+	@Test
+	public void testGlobMatchesMetacharactersLiterally()
+	{
+		LingeringClickTooltipsFilterList filterList = compile("Use . on (x)*", "Cast [Fire] + ^$|? *");
+		assertTrue(filterList.contains("Use . on (x) Logs"));
+		assertFalse(filterList.contains("Use a on (x) Logs"));
+		assertFalse(filterList.contains("Use . on x Logs"));
+		assertTrue(filterList.contains("Cast [Fire] + ^$|? Strike"));
+		assertFalse(filterList.contains("Cast F + ^$|? Strike"));
+		assertTrue(matchesGlob("\\Q*\\E", "\\Qanything\\E"));
+		assertFalse(matchesGlob("\\Q*\\E", "anything"));
+	}
+
+	@Test
+	public void testGlobDoesNotBacktrack()
+	{
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 100000; i++)
+		{
+			text.append('a');
+		}
+		// a backtracking matcher would retry every way of splitting text between the wildcards here
+		assertFalse(matchesGlob("*a*a*a*a*a*a*a*a*a*a*a*a*b", text.toString()));
+	}
+
+	@Test
+	public void testRegexEntries()
+	{
+		LingeringClickTooltipsFilterList filterList = compile("/Attack .* \\(level-\\d+\\)/");
+		assertTrue(filterList.contains("Attack Goblin (level-2)"));
+		assertFalse(filterList.contains("Attack Goblin"));
+		assertFalse(filterList.contains("/Attack .* \\(level-\\d+\\)/"));
+	}
+
+	@Test
+	public void testInvalidRegexFallsBackToLiteral()
+	{
+		LingeringClickTooltipsFilterList filterList = compile("/Attack [Goblin/", "Talk-to *");
+		assertNull(LingeringClickTooltipsPattern.regex("Attack [Goblin"));
+		assertTrue(filterList.contains("/Attack [Goblin/"));
+		assertFalse(filterList.contains("Attack G"));
+		assertTrue(filterList.contains("Talk-to Banker")); // the rest of the list still matches
+	}
+
+	@Test
+	public void testLargeRegexFallsBackToLiteral()
+	{
+		String regex = "a{" + (LingeringClickTooltipsPattern.MAXIMUM_REGEX_STATES + 1) + "}";
+		LingeringClickTooltipsFilterList filterList = compile("/" + regex + "/");
+		assertNull(LingeringClickTooltipsPattern.regex(regex));
+		assertTrue(filterList.contains("/" + regex + "/"));
+		assertFalse(filterList.contains(String.join("", Collections.nCopies(LingeringClickTooltipsPattern.MAXIMUM_REGEX_STATES + 1, "a"))));
+	}
+
+	@Test
+	public void testBacktrackingRegexFallsBackToLiteral()
+	{
+		LingeringClickTooltipsFilterList filterList = compile("/(a)\\1/", "/Attack(?= Goblin).*/", "/a*+/", "Talk-to *");
+		assertTrue(filterList.contains("/(a)\\1/"));
+		assertFalse(filterList.contains("aa"));
+		assertFalse(filterList.contains("Attack Goblin"));
+		assertFalse(filterList.contains("aaa"));
+		assertTrue(filterList.contains("Talk-to Banker"));
+	}
+
+	@Test
+	public void testGlobsAndRegexesMatchTogether()
+	{
+		LingeringClickTooltipsFilterList filterList = compile("Attack *", "* Guard", "/Talk-to (Banker|Guard)/", "Bank Banker");
+		assertTrue(filterList.contains("Attack Goblin"));
+		assertTrue(filterList.contains("Pickpocket Guard"));
+		assertTrue(filterList.contains("Talk-to Banker"));
+		assertTrue(filterList.contains("Bank Banker"));
+		assertFalse(filterList.contains("Talk-to Goblin"));
+		assertFalse(filterList.contains("Bank Guard Captain"));
+	}
+
+	@Test
+	public void testAddAndRemove()
+	{
+		LingeringClickTooltipsFilterList filterList = compile();
+		assertTrue(filterList.add("Attack *"));
+		assertFalse(filterList.add("Attack *"));
+		assertTrue(filterList.add("/Talk-to .*/"));
+		assertTrue(filterList.add("Bank Banker"));
+		assertEquals(3, filterList.size());
+		assertTrue(filterList.contains("Attack Goblin"));
+		assertTrue(filterList.contains("Talk-to Banker"));
+
+		assertTrue(filterList.remove("Attack *"));
+		assertTrue(filterList.remove("/Talk-to .*/"));
+		assertFalse(filterList.remove("Attack Goblin"));
+		assertFalse(filterList.contains("Attack Goblin"));
+		assertFalse(filterList.contains("Talk-to Banker"));
+		assertTrue(filterList.contains("Bank Banker"));
+		assertTrue(filterList.containsEntry("Bank Banker"));
+		assertEquals(Collections.singletonList("Bank Banker"), filterList.getEntries());
+	}
+}
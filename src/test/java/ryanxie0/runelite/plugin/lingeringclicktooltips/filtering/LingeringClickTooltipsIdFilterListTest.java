@@ -0,0 +1,44 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsIdFilterListTest
+{
+	@Test
+	public void testEntriesKeepTheirText()
+	{
+		LingeringClickTooltipsIdFilterList idFilterList = LingeringClickTooltipsIdFilterList.compile(
+			Arrays.asList("9:3029=Attack Goblin", "3:1276", "not an entry", "20:995=Take Coins = 10"));
+		assertEquals(3, idFilterList.size());
+		assertTrue(idFilterList.contains(LingeringClickTooltipsFilteringUtil.getClickKey(9, 3029)));
+		assertTrue(idFilterList.contains(LingeringClickTooltipsFilteringUtil.getClickKey(3, 1276)));
+		assertEquals("Take Coins = 10", idFilterList.remove(LingeringClickTooltipsFilteringUtil.getClickKey(20, 995)));
+		assertNull(idFilterList.remove(LingeringClickTooltipsFilteringUtil.getClickKey(3, 1276))); // listed before texts were recorded
+
+		LingeringClickTooltipsIdFilterList persisted = LingeringClickTooltipsIdFilterList.compile(idFilterList.getEntries());
+		assertEquals(Collections.singletonList("9:3029=Attack Goblin"), persisted.getEntries());
+	}
+
+	@Test
+	public void testRemoveText()
+	{
+		LingeringClickTooltipsIdFilterList idFilterList = LingeringClickTooltipsIdFilterList.compile(Collections.emptyList());
+		idFilterList.add(1L, "Attack Goblin");
+		idFilterList.add(2L, "Attack Goblin");
+		idFilterList.add(3L, "Attack Guard");
+
+		assertTrue(idFilterList.removeText("Attack Goblin"));
+		assertFalse(idFilterList.removeText("Attack Goblin"));
+		assertFalse(idFilterList.contains(1L));
+		assertFalse(idFilterList.contains(2L));
+		assertTrue(idFilterList.contains(3L));
+	}
+}
@@ -0,0 +1,116 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static ryanxie0.runelite.plugin.lingeringclicktooltips.filtering.LingeringClickTooltipsFilteringUtil.getClickKey;
+
+public class LingeringClickTooltipsLongHashSetTest
+{
+	@Test
+	public void testAddContainsRemove()
+	{
+		LingeringClickTooltipsLongHashSet set = new LingeringClickTooltipsLongHashSet();
+		long key = getClickKey(9, 3080);
+
+		assertTrue(set.add(key));
+		assertFalse(set.add(key));
+		assertTrue(set.contains(key));
+		assertFalse(set.contains(getClickKey(10, 3080)));
+		assertFalse(set.contains(getClickKey(9, 3081)));
+
+		assertTrue(set.remove(key));
+		assertFalse(set.remove(key));
+		assertFalse(set.contains(key));
+		assertEquals(0, set.size());
+	}
+
+	@Test
+	public void testZeroKey()
+	{
+		LingeringClickTooltipsLongHashSet set = new LingeringClickTooltipsLongHashSet();
+		assertFalse(set.contains(0L));
+		assertTrue(set.add(0L));
+		assertFalse(set.add(0L));
+		assertTrue(set.contains(0L));
+		assertEquals(1, set.size());
+		assertArrayEquals(new long[]{0L}, set.toArray());
+		assertTrue(set.remove(0L));
+		assertFalse(set.contains(0L));
+		assertEquals(0, set.size());
+	}
+
+	@Test
+	public void testResizeKeepsEveryKey()
+	{
+		LingeringClickTooltipsLongHashSet set = new LingeringClickTooltipsLongHashSet(1);
+		for (int identifier = 0; identifier < 1000; identifier++)
+		{
+			assertTrue(set.add(getClickKey(identifier % 7, identifier)));
+		}
+		assertEquals(1000, set.size());
+		for (int identifier = 0; identifier < 1000; identifier++)
+		{
+			assertTrue(set.contains(getClickKey(identifier % 7, identifier)));
+		}
+
+		Set<Long> keys = new HashSet<>();
+		for (long key : set.toArray())
+		{
+			keys.add(key);
+		}
+		assertEquals(1000, keys.size());
+	}
+
+	@Test
+	public void testMatchesHashSetUnderCollisions()
+	{
+		// at most 8 distinct keys keep the table at its minimum capacity, so probe chains overlap and removals shift
+		// keys back often
+		Random random = new Random(1);
+		LingeringClickTooltipsLongHashSet set = new LingeringClickTooltipsLongHashSet();
+		Set<Long> expected = new HashSet<>();
+		for (int i = 0; i < 100000; i++)
+		{
+			long key = getClickKey(random.nextInt(2), random.nextInt(4));
+			if (random.nextBoolean())
+			{
+				assertEquals(expected.add(key), set.add(key));
+			}
+			else
+			{
+				assertEquals(expected.remove(key), set.remove(key));
+			}
+			assertEquals(expected.size(), set.size());
+		}
+
+		for (int menuActionId = 0; menuActionId < 2; menuActionId++)
+		{
+			for (int identifier = 0; identifier < 4; identifier++)
+			{
+				long key = getClickKey(menuActionId, identifier);
+				assertEquals(expected.contains(key), set.contains(key));
+			}
+		}
+	}
+
+	@Test
+	public void testClear()
+	{
+		LingeringClickTooltipsLongHashSet set = new LingeringClickTooltipsLongHashSet();
+		set.add(0L);
+		set.add(getClickKey(1, 2));
+		set.clear();
+		assertEquals(0, set.size());
+		assertFalse(set.contains(0L));
+		assertFalse(set.contains(getClickKey(1, 2)));
+		assertEquals(0, set.toArray().length);
+	}
+}
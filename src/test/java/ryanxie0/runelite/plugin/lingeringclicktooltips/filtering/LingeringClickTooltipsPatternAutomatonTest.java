@@ -0,0 +1,136 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.filtering;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LingeringClickTooltipsPatternAutomatonTest
+{
+	private static LingeringClickTooltipsPatternAutomaton compileRegexes(String... regexes)
+	{
+		List<LingeringClickTooltipsPattern> patterns = new ArrayList<>();
+		for (String regex : regexes)
+		{
+			LingeringClickTooltipsPattern pattern = LingeringClickTooltipsPattern.regex(regex);
+			assertNotNull(regex, pattern);
+			patterns.add(pattern);
+		}
+		return LingeringClickTooltipsPatternAutomaton.compile(patterns);
+	}
+
+	private static boolean matchesRegex(String regex, String text)
+	{
+		return compileRegexes(regex).matches(text);
+	}
+
+	@Test
+	public void testRegexSyntax()
+	{
+		assertTrue(matchesRegex("Attack .* \\(level-\\d+\\)", "Attack Goblin (level-2)"));
+		assertTrue(matchesRegex("[A-Z][a-z]+-?to \\w+", "Talk-to Banker"));
+		assertFalse(matchesRegex("[A-Z][a-z]+-?to \\w+", "talk-to Banker"));
+		assertTrue(matchesRegex("[^0-9]{2,3}", "ab!"));
+		assertFalse(matchesRegex("[^0-9]{2,3}", "a1"));
+		assertFalse(matchesRegex("[^0-9]{2,3}", "abcd"));
+		assertTrue(matchesRegex("(?:Use|Cast) \\Q(x)*\\E\\s\\S", "Cast (x)* y"));
+		assertTrue(matchesRegex("^Bank.*?$", "Bank Banker"));
+		assertTrue(matchesRegex("a{2,}b?", "aaaa"));
+		assertFalse(matchesRegex("a{2,}b?", "ab"));
+		assertTrue(matchesRegex("\\x41\\u0042[-_]", "AB-"));
+		assertFalse(matchesRegex("a.b", "a\nb"));
+		assertTrue(matchesRegex("(|a)b", "b"));
+	}
+
+	@Test
+	public void testUnsupportedRegexes()
+	{
+		String[] regexes = {"(a)\\1", "a(?=b)", "a(?!b)", "(?<=a)b", "(?i)a", "a*+", "\\bA", "a\\Z", "[a[b]]", "[a&&b]",
+			"a^b", "a$b", "\\p{L}", "(a", "a)", "*a", "a**", "a{2", "a{3,2}", "[a", "\\", "\\x4", "\\uXYZW", "[z-a]"};
+		for (String regex : regexes)
+		{
+			assertNull(regex, LingeringClickTooltipsPattern.regex(regex));
+		}
+	}
+
+	@Test
+	public void testRegexDoesNotBacktrack()
+	{
+		String text = String.join("", Collections.nCopies(100000, "a"));
+		// a backtracking matcher would retry every way of splitting text between the nested quantifiers here
+		assertFalse(matchesRegex("(a+)+b", text));
+		assertFalse(matchesRegex("(a|aa)*c", text));
+		assertTrue(matchesRegex("(a*)*", text));
+	}
+
+	@Test
+	public void testRegexesMatchLikeJavaRegex()
+	{
+		Random random = new Random(22);
+		String[] atoms = {"a", "b", ".", "[ab]", "[^a]", "(a|b)", "(ab|a)", "(a*)", "\\w", "()"};
+		String[] quantifiers = {"", "", "*", "+", "?", "{2}", "{1,2}", "*?"};
+		for (int i = 0; i < 500; i++)
+		{
+			StringBuilder regex = new StringBuilder();
+			int length = 1 + random.nextInt(4);
+			for (int j = 0; j < length; j++)
+			{
+				regex.append(atoms[random.nextInt(atoms.length)]).append(quantifiers[random.nextInt(quantifiers.length)]);
+			}
+			if (random.nextInt(4) == 0)
+			{
+				regex.append('|').append(atoms[random.nextInt(atoms.length)]);
+			}
+
+			LingeringClickTooltipsPatternAutomaton automaton = compileRegexes(regex.toString());
+			Pattern expected = Pattern.compile(regex.toString());
+			for (int j = 0; j < 20; j++)
+			{
+				StringBuilder text = new StringBuilder();
+				int textLength = random.nextInt(6);
+				for (int k = 0; k < textLength; k++)
+				{
+					text.append("abc".charAt(random.nextInt(3)));
+				}
+				assertEquals(regex + " on " + text, expected.matcher(text).matches(), automaton.matches(text.toString()));
+			}
+		}
+	}
+
+	@Test
+	public void testCacheIsClearedWhenFull()
+	{
+		List<LingeringClickTooltipsPattern> patterns = new ArrayList<>();
+		patterns.add(LingeringClickTooltipsPattern.glob("*a*b*c"));
+		patterns.add(LingeringClickTooltipsPattern.regex("[a-z]*\\d{3}"));
+		LingeringClickTooltipsPatternAutomaton automaton = LingeringClickTooltipsPatternAutomaton.compile(patterns, 200);
+		Pattern expected = Pattern.compile(".*a.*b.*c|[a-z]*\\d{3}");
+
+		Random random = new Random(23);
+		boolean isCleared = false;
+		int cachedStateCount = automaton.getCachedStateCount();
+		for (int i = 0; i < 2000; i++)
+		{
+			StringBuilder text = new StringBuilder();
+			int length = random.nextInt(12);
+			for (int j = 0; j < length; j++)
+			{
+				text.append("abcxy129".charAt(random.nextInt(8)));
+			}
+			assertEquals(text.toString(), expected.matcher(text).matches(), automaton.matches(text.toString()));
+			isCleared |= automaton.getCachedStateCount() < cachedStateCount;
+			cachedStateCount = automaton.getCachedStateCount();
+			assertTrue(cachedStateCount <= 200);
+		}
+		assertTrue(isCleared);
+	}
+}
@@ -0,0 +1,99 @@
+package ryanxie0.runelite.plugin.lingeringclicktooltips.renderable.alpha;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+
+import static org.junit.Assert.assertEquals;
+
+public class AlphaTooltipLayerTest
+{
+	private Graphics2D graphics;
+	private AlphaTooltipLayer layer;
+	private AlphaTooltipComponent bottom;
+	private AlphaTooltipComponent top;
+
+	@Before
+	public void before()
+	{
+		graphics = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+		layer = new AlphaTooltipLayer();
+		bottom = createComponent("Walk here", 10, 10);
+		top = createComponent("Attack Goblin", 10, 40);
+	}
+
+	@After
+	public void after()
+	{
+		graphics.dispose();
+	}
+
+	private static AlphaTooltipComponent createComponent(String text, int x, int y)
+	{
+		AlphaTooltipComponent component = new AlphaTooltipComponent();
+		component.setLayout(AlphaTooltipLayout.parse(text));
+		component.setPosition(new Point(x, y));
+		return component;
+	}
+
+	private void drawFrame(double topAlphaModifier)
+	{
+		layer.begin(graphics);
+		layer.add(bottom, 1.0);
+		layer.add(top, topAlphaModifier);
+		layer.draw(graphics);
+	}
+
+	private void assertFrames(long dirtyFrames, long cleanFrames)
+	{
+		assertEquals(dirtyFrames, layer.getDirtyFrames());
+		assertEquals(cleanFrames, layer.getCleanFrames());
+	}
+
+	@Test
+	public void testUnchangedStackIsClean()
+	{
+		drawFrame(1.0);
+		assertFrames(1, 0);
+		for (int i = 0; i < 10; i++)
+		{
+			drawFrame(1.0);
+		}
+		assertFrames(1, 10);
+	}
+
+	@Test
+	public void testChangedStackIsDirty()
+	{
+		drawFrame(1.0);
+		drawFrame(0.5); // alpha
+		assertFrames(2, 0);
+
+		top.setPosition(new Point(20, 40));
+		drawFrame(0.5); // position
+		assertFrames(3, 0);
+
+		layer.begin(graphics);
+		layer.add(bottom, 1.0);
+		layer.draw(graphics); // a tooltip removed
+		assertFrames(4, 0);
+
+		drawFrame(0.5); // a tooltip added
+		drawFrame(0.5);
+		assertFrames(5, 1);
+	}
+
+	@Test
+	public void testEmptyStackIsNotCounted()
+	{
+		layer.begin(graphics);
+		layer.draw(graphics);
+		assertFrames(0, 0);
+	}
+}